@@ -0,0 +1,55 @@
+package com.book.BookHaven.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server for benchmarks that need real repositories.
+ * Runs against PostgreSQL from Testcontainers (one container per benchmark JVM, so Docker is
+ * required); set {@code bench.jdbc.url}, {@code bench.jdbc.username} and {@code bench.jdbc.password}
+ * to benchmark an existing PostgreSQL instead.
+ */
+final class BenchmarkApplication {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(Class<?> applicationClass, String... extraArgs) {
+        String url = System.getProperty("bench.jdbc.url");
+        List<String> args = new ArrayList<>();
+        if (url == null) {
+            PostgreSQLContainer<?> container = postgres();
+            args.add("--spring.datasource.url=" + container.getJdbcUrl());
+            args.add("--spring.datasource.username=" + container.getUsername());
+            args.add("--spring.datasource.password=" + container.getPassword());
+        } else {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("bench.jdbc.username", "postgres"));
+            args.add("--spring.datasource.password=" + System.getProperty("bench.jdbc.password", ""));
+        }
+        args.add("--spring.jpa.hibernate.ddl-auto=update");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--catalog.index.enabled=false");
+        args.add("--logging.level.root=WARN");
+        args.addAll(List.of(extraArgs));
+
+        SpringApplication application = new SpringApplication(applicationClass);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(args.toArray(new String[0]));
+    }
+
+    /** Started on first use and left to Testcontainers to remove when the fork exits. */
+    private static synchronized PostgreSQLContainer<?> postgres() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>(System.getProperty("bench.postgres-image", "postgres:16-alpine"));
+            postgres.start();
+        }
+        return postgres;
+    }
+}
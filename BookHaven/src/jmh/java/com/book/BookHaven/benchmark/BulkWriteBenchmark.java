@@ -0,0 +1,124 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.BookHavenApplication;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.Cart;
+import com.book.BookHaven.entity.User;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk cart and catalog inserts through Hibernate with JDBC batching off ({@code batchSize=1},
+ * which is all that Cart's former IDENTITY ids allowed) and on. Each invocation persists
+ * {@code rows} entities in one transaction, flushes and rolls back, so every run writes into
+ * the same table. The PostgreSQL driver's reWriteBatchedInserts applies on top, which is where
+ * batching pays off most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 6, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriteBenchmark {
+
+    private static final String USER_ID = "bulk-writer";
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"500"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(BookHavenApplication.class,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--catalog.homepage-snapshot.enabled=false");
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int cartInserts() {
+        return transaction.execute(status -> {
+            User user = entityManager.getReference(User.class, USER_ID);
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(Cart.builder()
+                        .user(user)
+                        .book(entityManager.getReference(Book.class, "bulk-book-" + i))
+                        .quantity(1)
+                        .build());
+            }
+            entityManager.flush();
+            status.setRollbackOnly();
+            return rows;
+        });
+    }
+
+    @Benchmark
+    public int catalogInserts() {
+        List<Book> books = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            books.add(book("bulk-new-" + i));
+        }
+        return transaction.execute(status -> {
+            books.forEach(entityManager::persist);
+            entityManager.flush();
+            status.setRollbackOnly();
+            return rows;
+        });
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, role, token_version) " +
+                "VALUES (?, 'bulkwriter', 'bulk-writer@example.com', 'x', ?, 'USER', 0)", USER_ID, now);
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            books.add(new Object[]{"bulk-book-" + i, "Title " + i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, publication_date, genre, description, " +
+                "price, image, rating, in_stock, added_by, created_at) VALUES (?, ?, 'Author', DATE '2001-01-01', " +
+                "'Genre', 'Description', 9.99, 'img', 4.0, true, 'System', ?)", books);
+    }
+
+    private static Book book(String id) {
+        return new Book(id, "Title " + id, "Author", LocalDate.of(2001, 1, 1), "Genre", "x".repeat(500),
+                new BigDecimal("9.99"), "https://example.com/" + id + ".jpg", 4.0, true, "System", LocalDateTime.now());
+    }
+}
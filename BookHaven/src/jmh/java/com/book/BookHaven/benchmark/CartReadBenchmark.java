@@ -0,0 +1,101 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.BookHavenApplication;
+import com.book.BookHaven.dto.CartItemResponse;
+import com.book.BookHaven.entity.Cart;
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.repository.CartRepository;
+import com.book.BookHaven.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A cart read as {@code CartService.getCart} did it before (user lookup, fetch-joined Cart and
+ * Book entities in a read-only transaction, mapped on the common ForkJoinPool) against the
+ * constructor-expression query that returns {@link CartItemResponse} rows directly. Add
+ * {@code -prof gc} to jmh.args to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartReadBenchmark {
+
+    private static final String EMAIL = "cart-bench@example.com";
+
+    @Param({"3", "20"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private CartRepository cartRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate readTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(BookHavenApplication.class);
+        cartRepository = context.getBean(CartRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readTransaction.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CartItemResponse> entitiesParallelStream() {
+        return readTransaction.execute(status -> {
+            User user = userRepository.findByEmail(EMAIL).orElseThrow();
+            List<Cart> cart = cartRepository.findByUserIdWithBooks(user.getId());
+            return cart.parallelStream().map(CartItemResponse::fromEntity).collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public List<CartItemResponse> constructorProjection() {
+        return readTransaction.execute(status -> cartRepository.findItemResponsesByUserEmail(EMAIL));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, role, token_version) " +
+                "VALUES ('cart-bench', 'cartbench', ?, 'x', ?, 'USER', 0)", EMAIL, now);
+        for (int i = 0; i < items; i++) {
+            jdbcTemplate.update("INSERT INTO books (id, title, author, publication_date, genre, description, price, " +
+                            "image, rating, in_stock, added_by, created_at) VALUES (?, ?, 'Author', DATE '2001-01-01', " +
+                            "'Genre', ?, ?, 'img', 4.0, true, 'System', ?)",
+                    "cart-book-" + i, "Title " + i, "x".repeat(1000), BigDecimal.valueOf(1000 + i, 2), now);
+            // Explicit ids: the benchmark starts on an empty table and never inserts through cart_seq
+            jdbcTemplate.update("INSERT INTO cart (id, user_id, book_id, quantity, created_at, updated_at, version) " +
+                    "VALUES (?, 'cart-bench', ?, 1, ?, ?, 0)", i + 1, "cart-book-" + i, now, now);
+        }
+    }
+}
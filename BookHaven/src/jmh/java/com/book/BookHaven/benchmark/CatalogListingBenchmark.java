@@ -0,0 +1,159 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.BookHavenApplication;
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.service.BookService;
+import com.book.BookHaven.service.BookSortKey;
+import com.book.BookHaven.service.CatalogIndex;
+import com.book.BookHaven.service.HomepageSnapshot;
+import com.book.BookHaven.service.UserIdentityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog listing before and after moving sorting into the query: full entities sorted with the
+ * old per-comparison {@code switch} comparator versus a database ORDER BY over the description-free
+ * projection, plus {@code BookService.getAllBooks} answered from a loaded {@link CatalogIndex}.
+ * Runs against PostgreSQL, see {@link BenchmarkApplication}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CatalogListingBenchmark {
+
+    private static final String DESCRIPTION = "x".repeat(1000);
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"title", "price"})
+    public String sortBy;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private EntityManager entityManager;
+    private BookService indexedBookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(BookHavenApplication.class);
+        bookRepository = context.getBean(BookRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        seed(context.getBean(JdbcTemplate.class));
+
+        // The shared context runs with the index off; build a loaded one over the seeded table
+        CatalogIndex catalogIndex = new CatalogIndex(bookRepository, true);
+        catalogIndex.rebuild();
+        indexedBookService = new BookService(bookRepository, context.getBean(UserIdentityService.class), catalogIndex,
+                new HomepageSnapshot(bookRepository, false), context, context.getBean(ObjectMapper.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookResponse> entitiesSortedInJava() {
+        List<Book> books = entityManager.createQuery("SELECT b FROM Book b", Book.class).getResultList();
+        String sortOrder = "asc";
+        books.sort((a, b) -> {
+            int order = "asc".equalsIgnoreCase(sortOrder) ? 1 : -1;
+            switch (sortBy.toLowerCase()) {
+                case "title":
+                    return a.getTitle().compareToIgnoreCase(b.getTitle()) * order;
+                case "price":
+                    return a.getPrice().compareTo(b.getPrice()) * order;
+                default:
+                    return a.getTitle().compareToIgnoreCase(b.getTitle()) * order;
+            }
+        });
+        return books.stream().map(BookResponse::fromEntity).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookResponse> databaseSortedProjection() {
+        return bookRepository.findSummariesBySearchAndGenre(null, null, BookSortKey.from(sortBy).sort(true))
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookResponse> indexedGetAllBooks() {
+        return indexedBookService.getAllBooks(null, null, sortBy, "asc");
+    }
+
+    @Benchmark
+    public List<BookResponse> indexedGetAllBooksSearch() {
+        return indexedBookService.getAllBooks("author 12", "Genre 7", sortBy, "asc");
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class);
+        if (existing != null && existing >= rows) {
+            return;
+        }
+        String sql = "INSERT INTO books (id, title, author, publication_date, genre, description, price, image, " +
+                "rating, in_stock, added_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int batchSize = 1000;
+        for (int start = existing != null ? existing : 0; start < rows; start += batchSize) {
+            int from = start;
+            int to = Math.min(rows, start + batchSize);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = from + i;
+                    ps.setString(1, "bench-" + n);
+                    // Scatter titles so insertion order is not already sorted
+                    ps.setString(2, String.format("Title %08x", (n * 2654435761L) & 0xffffffffL));
+                    ps.setString(3, "Author " + (n % 5000));
+                    ps.setDate(4, Date.valueOf(LocalDate.of(1950 + n % 70, 1 + n % 12, 1 + n % 28)));
+                    ps.setString(5, "Genre " + (n % 40));
+                    ps.setString(6, DESCRIPTION);
+                    ps.setBigDecimal(7, BigDecimal.valueOf(100 + (n * 37L) % 90000, 2));
+                    ps.setString(8, "https://example.com/" + n + ".jpg");
+                    ps.setDouble(9, (n % 50) / 10.0);
+                    ps.setBoolean(10, true);
+                    ps.setString(11, "System");
+                    ps.setTimestamp(12, Timestamp.valueOf(LocalDateTime.now().minusMinutes(n)));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return to - from;
+                }
+            });
+        }
+    }
+}
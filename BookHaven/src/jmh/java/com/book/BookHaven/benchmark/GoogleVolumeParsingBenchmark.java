@@ -0,0 +1,171 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.service.GoogleVolumeMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning one Google Books volume response into a {@link Book}: the two previous paths (body
+ * as a String parsed into an org.json tree, and Jackson into a raw Map tree) against the
+ * streaming {@link GoogleVolumeMapper}. Add {@code -prof gc} to jmh.args to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoogleVolumeParsingBenchmark {
+
+    // Length of the description; real volumes range from none to several kilobytes
+    @Param({"500", "8000"})
+    public int descriptionLength;
+
+    private byte[] body;
+    private ObjectMapper objectMapper;
+    private GoogleVolumeMapper volumeMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        volumeMapper = new GoogleVolumeMapper(objectMapper);
+        body = volumeJson(descriptionLength).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Book orgJsonTree() {
+        JSONObject json = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        JSONObject volumeInfo = json.getJSONObject("volumeInfo");
+
+        Book book = new Book();
+        book.setId("zyTCAlFPjgYC");
+        book.setTitle(volumeInfo.optString("title", "Unknown Title"));
+        book.setAuthor(volumeInfo.optJSONArray("authors") != null
+                ? volumeInfo.getJSONArray("authors").optString(0, "Unknown Author") : "Unknown Author");
+        book.setGenre(volumeInfo.optJSONArray("categories") != null
+                ? volumeInfo.getJSONArray("categories").optString(0, "General") : "General");
+        book.setDescription(volumeInfo.optString("description", "No description available"));
+        book.setImage(volumeInfo.optJSONObject("imageLinks") != null
+                ? volumeInfo.getJSONObject("imageLinks").optString("thumbnail", "https://via.placeholder.com/150")
+                : "https://via.placeholder.com/150");
+        book.setRating(volumeInfo.has("averageRating") ? volumeInfo.optDouble("averageRating", 3.5) : 3.5);
+        book.setPrice(BigDecimal.valueOf(Math.random() * 1000 + 100));
+        return book;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Book jacksonMapTree() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(body, Map.class);
+        Map<String, Object> volumeInfo = (Map<String, Object>) response.get("volumeInfo");
+
+        Book book = new Book();
+        book.setId("zyTCAlFPjgYC");
+        book.setTitle((String) volumeInfo.getOrDefault("title", "Untitled"));
+        book.setAuthor(((List<String>) volumeInfo.getOrDefault("authors", List.of("Unknown Author"))).get(0));
+        book.setGenre(((List<String>) volumeInfo.getOrDefault("categories", List.of("General"))).get(0));
+        book.setDescription((String) volumeInfo.getOrDefault("description", "No description available"));
+        book.setImage(((Map<String, String>) volumeInfo.getOrDefault("imageLinks", Map.of()))
+                .getOrDefault("thumbnail", "https://via.placeholder.com/150"));
+        book.setRating(((Number) volumeInfo.getOrDefault("averageRating", 3.5)).doubleValue());
+        book.setPrice(BigDecimal.valueOf(Math.random() * 1000 + 100));
+        return book;
+    }
+
+    @Benchmark
+    public Book streamingMapper() throws IOException {
+        return volumeMapper.readVolume(new ByteArrayInputStream(body), "zyTCAlFPjgYC", "System");
+    }
+
+    /** Shaped like a real volumes/{id} response, including the sections we never read. */
+    private static String volumeJson(int descriptionLength) {
+        String description = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(descriptionLength / 57 + 1)
+                .substring(0, descriptionLength);
+        return """
+                {
+                  "kind": "books#volume",
+                  "id": "zyTCAlFPjgYC",
+                  "etag": "f0zKg75Mx/I",
+                  "selfLink": "https://www.googleapis.com/books/v1/volumes/zyTCAlFPjgYC",
+                  "volumeInfo": {
+                    "title": "The Google Story",
+                    "subtitle": "Inside the Hottest Business, Media, and Technology Success of Our Time",
+                    "authors": ["David A. Vise", "Mark Malseed"],
+                    "publisher": "Random House Publishing Group",
+                    "publishedDate": "2005-11-15",
+                    "description": "%s",
+                    "industryIdentifiers": [
+                      {"type": "ISBN_10", "identifier": "055380457X"},
+                      {"type": "ISBN_13", "identifier": "9780553804577"}
+                    ],
+                    "readingModes": {"text": true, "image": false},
+                    "pageCount": 207,
+                    "printedPageCount": 256,
+                    "dimensions": {"height": "24.00 cm", "width": "16.30 cm", "thickness": "2.70 cm"},
+                    "printType": "BOOK",
+                    "categories": ["Browsers (Computer programs)", "Business & Economics / General"],
+                    "averageRating": 3.5,
+                    "ratingsCount": 136,
+                    "maturityRating": "NOT_MATURE",
+                    "allowAnonLogging": true,
+                    "contentVersion": "1.17.6.0.preview.2",
+                    "panelizationSummary": {"containsEpubBubbles": false, "containsImageBubbles": false},
+                    "imageLinks": {
+                      "smallThumbnail": "http://books.google.com/books/content?id=zyTCAlFPjgYC&zoom=5",
+                      "thumbnail": "http://books.google.com/books/content?id=zyTCAlFPjgYC&zoom=1",
+                      "small": "http://books.google.com/books/content?id=zyTCAlFPjgYC&zoom=2",
+                      "medium": "http://books.google.com/books/content?id=zyTCAlFPjgYC&zoom=3",
+                      "large": "http://books.google.com/books/content?id=zyTCAlFPjgYC&zoom=4"
+                    },
+                    "language": "en",
+                    "previewLink": "http://books.google.com/books?id=zyTCAlFPjgYC&hl=&source=gbs_api",
+                    "infoLink": "https://play.google.com/store/books/details?id=zyTCAlFPjgYC&source=gbs_api",
+                    "canonicalVolumeLink": "https://play.google.com/store/books/details?id=zyTCAlFPjgYC"
+                  },
+                  "layerInfo": {"layers": [{"layerId": "geo", "volumeAnnotationsVersion": "6"}]},
+                  "saleInfo": {
+                    "country": "US",
+                    "saleability": "FOR_SALE",
+                    "isEbook": true,
+                    "listPrice": {"amount": 11.99, "currencyCode": "USD"},
+                    "retailPrice": {"amount": 11.99, "currencyCode": "USD"},
+                    "buyLink": "https://play.google.com/store/books/details?id=zyTCAlFPjgYC&rdid=book-zyTCAlFPjgYC",
+                    "offers": [{"finskyOfferType": 1, "listPrice": {"amountInMicros": 11990000, "currencyCode": "USD"},
+                                "retailPrice": {"amountInMicros": 11990000, "currencyCode": "USD"}}]
+                  },
+                  "accessInfo": {
+                    "country": "US",
+                    "viewability": "PARTIAL",
+                    "embeddable": true,
+                    "publicDomain": false,
+                    "textToSpeechPermission": "ALLOWED_FOR_ACCESSIBILITY",
+                    "epub": {"isAvailable": true, "acsTokenLink": "http://books.google.com/books/download/acs"},
+                    "pdf": {"isAvailable": false},
+                    "webReaderLink": "http://play.google.com/books/reader?id=zyTCAlFPjgYC",
+                    "accessViewStatus": "SAMPLE",
+                    "quoteSharingAllowed": false
+                  }
+                }
+                """.formatted(description);
+    }
+}
@@ -0,0 +1,120 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.config.JwtAuthenticationFilter;
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.repository.UserRepository;
+import com.book.BookHaven.service.JwtService;
+import com.book.BookHaven.service.TokenVersionService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter} with a no-op chain and an
+ * in-memory user store, so the numbers are the filter's own cost: token verification, principal
+ * resolution and populating the security context.
+ *
+ * <ul>
+ *     <li>{@code stateless}: token carries user id and version, principal built from claims</li>
+ *     <li>{@code legacy}: token without them, principal loaded through the UserDetailsService</li>
+ *     <li>{@code public}: GET on the catalog, which the filter passes straight through</li>
+ *     <li>{@code invalid}: a token with a bad signature</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    @Param({"stateless", "legacy", "public", "invalid"})
+    public String scenario;
+
+    private JwtAuthenticationFilter filter;
+    private String method;
+    private String path;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = JwtBenchmark.jwtService();
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById("bench-user")).thenReturn(Optional.of(0));
+        TokenVersionService tokenVersionService = new TokenVersionService(userRepository, 10_000, Duration.ofMinutes(1));
+
+        UserDetailsService userDetailsService = username -> org.springframework.security.core.userdetails.User
+                .withUsername(username).password("").roles("USER").build();
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionService, true);
+
+        method = "GET";
+        path = "/api/cart";
+        User user = JwtBenchmark.user("bench-user", EMAIL);
+        switch (scenario) {
+            case "stateless" -> authorization = "Bearer " + jwtService.generateToken(user, false);
+            case "legacy" -> authorization = "Bearer " + legacyToken();
+            case "public" -> path = "/api/books";
+            case "invalid" -> {
+                String token = jwtService.generateToken(user, false);
+                authorization = "Bearer " + token.substring(0, token.length() - 4) + "AAAA";
+            }
+            default -> throw new IllegalArgumentException(scenario);
+        }
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRequestURI(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /** A token as issued before the user id and token version claims were added. */
+    private static String legacyToken() {
+        return Jwts.builder()
+                .claim("authorities", List.of("USER"))
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(Keys.hmacShaKeyFor(JwtBenchmark.SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
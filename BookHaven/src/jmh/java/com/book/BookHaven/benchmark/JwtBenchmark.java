@@ -0,0 +1,86 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and verification. {@code getClaimsCached} is the steady state for a returning
+ * client; {@code parseUncached} is what the first request with a token (a cache miss) pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET = "MySuperUltraSecureBookHavenSecretKey1234567890abcdefGHIJKLMNOPQRSTUVWXYZ";
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = jwtService();
+        parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        user = user("bench-user", "bench@example.com");
+        token = jwtService.generateToken(user, false);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, false);
+    }
+
+    @Benchmark
+    public Claims getClaimsCached() {
+        return jwtService.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /** A JwtService configured like application.properties, without starting a context. */
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "rememberMeExpiration", 2_592_000_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    static User user(String id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setRole("USER");
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package com.book.BookHaven.benchmark;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.dto.CartItemResponse;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.Cart;
+import com.book.BookHaven.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to response mapping for a catalog page and a cart, the per-item work every listing
+ * endpoint does after the query returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private List<Book> books;
+    private List<Cart> cart;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId("bench-user");
+        books = new ArrayList<>(size);
+        cart = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = new Book();
+            book.setId("bench-" + i);
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + i % 50);
+            book.setPublicationDate(LocalDate.of(1950 + i % 70, 1 + i % 12, 1 + i % 28));
+            book.setGenre("Genre " + i % 40);
+            book.setDescription("x".repeat(1000));
+            book.setPrice(BigDecimal.valueOf(100 + i, 2));
+            book.setImage("https://example.com/" + i + ".jpg");
+            book.setRating((i % 50) / 10.0);
+            book.setInStock(true);
+            book.setAddedBy("System");
+            book.setCreatedAt(LocalDateTime.now());
+            books.add(book);
+            cart.add(Cart.builder().id((long) i).user(user).book(book).quantity(1 + i % 3).build());
+        }
+    }
+
+    @Benchmark
+    public List<BookResponse> bookResponses() {
+        return books.stream().map(BookResponse::fromEntity).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CartItemResponse> cartItemResponses() {
+        return cart.stream().map(CartItemResponse::fromEntity).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.book.BookHaven.loadtest;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The seeded catalog: {@code size} books with ids "load-0", "load-1", ..., titles built from a
+ * small vocabulary so searches hit realistic result counts, and a source of ids the database
+ * does not have yet, which the app resolves through the Google Books stub.
+ */
+final class Catalog {
+
+    private static final String[] WORDS = {"Silent", "River", "Empire", "Garden", "Winter", "Secret", "Machine",
+            "Ocean", "Shadow", "Letters", "Night", "Kingdom", "Glass", "Harvest", "Atlas", "Storm"};
+    private static final int GENRES = 24;
+    private static final int AUTHORS = 1500;
+    private static final String DESCRIPTION = "A seeded load-test description. ".repeat(20);
+
+    private final int size;
+    private final AtomicLong googleIds = new AtomicLong();
+
+    Catalog(int size) {
+        this.size = size;
+    }
+
+    String randomId() {
+        return "load-" + ThreadLocalRandom.current().nextInt(size);
+    }
+
+    String newGoogleId() {
+        return "google-" + googleIds.incrementAndGet();
+    }
+
+    String randomSearchTerm() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextBoolean() ? WORDS[random.nextInt(WORDS.length)] : "Author " + random.nextInt(AUTHORS);
+    }
+
+    String randomGenre() {
+        return genre(ThreadLocalRandom.current().nextInt(GENRES));
+    }
+
+    void seed(JdbcTemplate jdbcTemplate) {
+        String sql = "INSERT INTO books (id, title, author, publication_date, genre, description, price, image, " +
+                "rating, in_stock, added_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int batchSize = 1000;
+        for (int start = 0; start < size; start += batchSize) {
+            int from = start;
+            int to = Math.min(size, start + batchSize);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = from + i;
+                    ps.setString(1, "load-" + n);
+                    ps.setString(2, WORDS[n % WORDS.length] + " " + WORDS[(n / WORDS.length) % WORDS.length] + " " + n);
+                    ps.setString(3, "Author " + (n % AUTHORS));
+                    ps.setDate(4, Date.valueOf(LocalDate.of(1950 + n % 70, 1 + n % 12, 1 + n % 28)));
+                    ps.setString(5, genre(n % GENRES));
+                    ps.setString(6, DESCRIPTION);
+                    ps.setBigDecimal(7, BigDecimal.valueOf(100 + (n * 37L) % 90000, 2));
+                    ps.setString(8, "https://example.com/" + n + ".jpg");
+                    ps.setDouble(9, (n % 50) / 10.0);
+                    ps.setBoolean(10, true);
+                    ps.setString(11, "System");
+                    ps.setTimestamp(12, Timestamp.valueOf(LocalDateTime.now().minusMinutes(n)));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return to - from;
+                }
+            });
+        }
+    }
+
+    private static String genre(int n) {
+        return "Genre " + n;
+    }
+}
@@ -0,0 +1,85 @@
+package com.book.BookHaven.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application through {@link LoadTestEnvironment} and has {@code loadtest.users}
+ * concurrent shoppers run the storefront mix: a warm-up phase that is thrown away, then a
+ * measured phase whose per-operation p50/p95/p99 and throughput are logged, written to
+ * {@code target/loadtest-report.json} and checked against {@code loadtest-slo.properties}.
+ * Runs only in the {@code loadtest} profile; see pom.xml for the knobs.
+ */
+@Slf4j
+class CatalogCartLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 32);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    static void startApplication() throws IOException {
+        environment = LoadTestEnvironment.start();
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (environment != null) {
+            environment.close();
+        }
+    }
+
+    @Test
+    void storefrontMixMeetsSlos() throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        List<Shopper> shoppers = environment.shoppers(USERS, http, new ObjectMapper());
+
+        log.info("Load test: {} shoppers, {} books, {} database; warming up for {}s",
+                USERS, LoadTestEnvironment.BOOKS, LoadTestEnvironment.POSTGRES_IMAGE, WARMUP.toSeconds());
+        LoadTestEnvironment.run(shoppers, WARMUP);
+        LatencyReport report = LoadTestEnvironment.run(shoppers, DURATION);
+
+        log.info("Load test results over {}s:{}", DURATION.toSeconds(), report.format(DURATION));
+        Map<String, Object> runInfo = new LinkedHashMap<>();
+        runInfo.put("database", LoadTestEnvironment.POSTGRES_IMAGE);
+        runInfo.put("users", USERS);
+        runInfo.put("books", LoadTestEnvironment.BOOKS);
+        runInfo.put("googleLatencyMillis", LoadTestEnvironment.GOOGLE_LATENCY.toMillis());
+        report.writeJson(Path.of("target", "loadtest-report.json"), DURATION, runInfo);
+
+        assertThat(report.sloViolations(slos(), DURATION)).as("SLO violations").isEmpty();
+    }
+
+    private static Properties slos() throws IOException {
+        Properties slos = new Properties();
+        String file = System.getProperty("loadtest.slo-file", "loadtest-slo.properties");
+        try (InputStream in = CatalogCartLoadTest.class.getClassLoader().getResourceAsStream(file)) {
+            if (in == null) {
+                throw new IllegalStateException("SLO file not found on the test classpath: " + file);
+            }
+            slos.load(in);
+        }
+        return slos;
+    }
+}
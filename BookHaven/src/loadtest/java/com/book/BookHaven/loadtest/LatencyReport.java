@@ -0,0 +1,120 @@
+package com.book.BookHaven.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and error counts for one load-test phase, with the
+ * p50/p95/p99 and throughput summary, a JSON dump and the SLO check built on top of them.
+ */
+final class LatencyReport {
+
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+
+    void record(String operation, String endpoint, long nanos, boolean error) {
+        Operation stats = operations.computeIfAbsent(operation, name -> new Operation(endpoint));
+        stats.latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (error) {
+            stats.errors.increment();
+        }
+    }
+
+    /** Summary rows in milliseconds, one per operation, in name order. */
+    Map<String, Map<String, Object>> summary(Duration elapsed) {
+        Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+        double seconds = elapsed.toMillis() / 1000.0;
+        operations.forEach((name, stats) -> {
+            Histogram histogram = stats.latencies;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", stats.endpoint);
+            row.put("requests", histogram.getTotalCount());
+            row.put("errors", stats.errors.sum());
+            row.put("throughput", round(histogram.getTotalCount() / seconds));
+            for (double percentile : PERCENTILES) {
+                row.put("p" + (int) percentile, millis(histogram.getValueAtPercentile(percentile)));
+            }
+            row.put("max", millis(histogram.getMaxValue()));
+            rows.put(name, row);
+        });
+        return rows;
+    }
+
+    String format(Duration elapsed) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-12s %-26s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        summary(elapsed).forEach((name, row) -> out.append(String.format(Locale.ROOT,
+                "%-12s %-26s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("throughput"),
+                row.get("p50"), row.get("p95"), row.get("p99"), row.get("max"))));
+        return out.toString();
+    }
+
+    void writeJson(Path file, Duration elapsed, Map<String, Object> run) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>(run);
+        document.put("durationSeconds", elapsed.toSeconds());
+        document.put("operations", summary(elapsed));
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    /** Describes every budget in {@code slos} this run exceeded; empty when all were met. */
+    List<String> sloViolations(Properties slos, Duration elapsed) {
+        List<String> violations = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(slos.getProperty("error-rate", "1"));
+        summary(elapsed).forEach((name, row) -> {
+            for (double percentile : PERCENTILES) {
+                String key = name + ".p" + (int) percentile;
+                String budget = slos.getProperty(key);
+                double actual = (double) row.get("p" + (int) percentile);
+                if (budget != null && actual > Double.parseDouble(budget)) {
+                    violations.add(String.format(Locale.ROOT, "%s = %.1f ms exceeds %s ms", key, actual, budget));
+                }
+            }
+            long requests = (long) row.get("requests");
+            double errorRate = requests == 0 ? 0 : (long) row.get("errors") / (double) requests;
+            if (errorRate > maxErrorRate) {
+                violations.add(String.format(Locale.ROOT, "%s error rate %.2f%% exceeds %.2f%%",
+                        name, errorRate * 100, maxErrorRate * 100));
+            }
+        });
+        return violations;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static final class Operation {
+
+        private final String endpoint;
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        private Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.book.BookHaven.loadtest;
+
+import com.book.BookHaven.BookHavenApplication;
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.service.CatalogIndex;
+import com.book.BookHaven.service.JwtService;
+import com.book.BookHaven.support.GoogleBooksStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One running copy of the application for a load test: PostgreSQL from Testcontainers, the
+ * Google Books stub, a seeded catalog and pre-registered shoppers.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+
+    static final String POSTGRES_IMAGE = System.getProperty("loadtest.postgres-image", "postgres:16-alpine");
+    static final int BOOKS = Integer.getInteger("loadtest.books", 5000);
+    static final Duration GOOGLE_LATENCY = Duration.parse(System.getProperty("loadtest.google-latency", "PT0.15S"));
+
+    private final PostgreSQLContainer<?> postgres;
+    private final GoogleBooksStubServer googleBooks;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+    private final Catalog catalog = new Catalog(BOOKS);
+
+    private LoadTestEnvironment(PostgreSQLContainer<?> postgres, GoogleBooksStubServer googleBooks,
+                                ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.googleBooks = googleBooks;
+        this.context = context;
+        this.baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static LoadTestEnvironment start(String... extraArgs) throws IOException {
+        GoogleBooksStubServer googleBooks = new GoogleBooksStubServer();
+        googleBooks.delayResponses(GOOGLE_LATENCY);
+
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--google.books.api-url=" + googleBooks.apiUrl(),
+                // Plain console lines so the report table stays readable
+                "--spring.profiles.active=dev",
+                "--logging.level.root=WARN",
+                "--logging.level.com.book.BookHaven.loadtest=INFO"));
+        if (!DockerClientFactory.instance().isDockerAvailable()) {
+            googleBooks.close();
+            throw new IllegalStateException("Docker is required for the load test's PostgreSQL");
+        }
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE);
+        postgres.start();
+        args.addAll(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword()));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = SpringApplication.run(BookHavenApplication.class, args.toArray(new String[0]));
+        LoadTestEnvironment environment = new LoadTestEnvironment(postgres, googleBooks, context);
+        environment.catalog.seed(context.getBean(JdbcTemplate.class));
+        // The index loaded the empty table at startup
+        context.getBean(CatalogIndex.class).rebuild();
+        return environment;
+    }
+
+    /**
+     * Inserts {@code count} users sharing {@link Shopper#PASSWORD} and hands each shopper a token,
+     * so setting up a thousand shoppers costs one BCrypt hash rather than a thousand.
+     */
+    List<Shopper> shoppers(int count, HttpClient http, ObjectMapper objectMapper) {
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(Shopper.PASSWORD);
+        JwtService jwtService = context.getBean(JwtService.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        List<Shopper> shoppers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User(UUID.randomUUID().toString(), "shopper" + i, "shopper" + i + "@loadtest.local",
+                    passwordHash, null, "USER");
+            rows.add(new Object[]{user.getId(), user.getUsername(), user.getEmail(), passwordHash, now, user.getRole()});
+            shoppers.add(new Shopper(http, objectMapper, baseUrl, catalog, user.getEmail(),
+                    jwtService.generateToken(user, false)));
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO users (id, username, email, password, created_at, "
+                + "role, token_version) VALUES (?, ?, ?, ?, ?, ?, 0)", rows);
+        return shoppers;
+    }
+
+    /** Has every shopper step through the mix until {@code duration} has passed. */
+    static LatencyReport run(List<Shopper> shoppers, Duration duration) throws Exception {
+        LatencyReport report = new LatencyReport();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(shoppers.size());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (Shopper shopper : shoppers) {
+                running.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        shopper.step(report);
+                    }
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get(duration.toSeconds() + 60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        googleBooks.close();
+        postgres.stop();
+    }
+}
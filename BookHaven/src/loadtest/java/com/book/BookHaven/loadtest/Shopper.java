@@ -0,0 +1,180 @@
+package com.book.BookHaven.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One virtual user: an account that browses the catalog, opens books, fills and
+ * updates a cart, checks out and now and then logs in again, in roughly the proportions the
+ * storefront produces. Every request is timed into a {@link LatencyReport}.
+ */
+final class Shopper {
+
+    static final String PASSWORD = "load-test-password";
+
+    static final String[] SORT_KEYS = {"title", "author", "price", "rating", "publicationDate"};
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Catalog catalog;
+    private final String email;
+    private final List<String> cart = new ArrayList<>();
+    private String token;
+
+    Shopper(HttpClient http, ObjectMapper objectMapper, String baseUrl, Catalog catalog, String email, String token) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.email = email;
+        this.token = token;
+    }
+
+    /** Performs one weighted-random step of the storefront mix. */
+    void step(LatencyReport report) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 42) {
+            browse(report);
+        } else if (roll < 64) {
+            call(report, "book", "GET /api/books/{id}", get("/api/books/" + catalog.randomId()), 200);
+        } else if (roll < 74) {
+            call(report, "cart", "GET /api/cart", authorized(get("/api/cart")), 200);
+        } else if (roll < 87) {
+            addToCart(report);
+        } else if (roll < 94) {
+            updateCart(report);
+        } else if (roll < 98) {
+            checkout(report);
+        } else {
+            login(report);
+        }
+    }
+
+    private void browse(LatencyReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder query = new StringBuilder("/api/books?limit=20&sortBy=")
+                .append(SORT_KEYS[random.nextInt(SORT_KEYS.length)])
+                .append("&sortOrder=").append(random.nextBoolean() ? "asc" : "desc");
+        int filter = random.nextInt(10);
+        if (filter < 3) {
+            query.append("&search=").append(encode(catalog.randomSearchTerm()));
+        } else if (filter < 5) {
+            query.append("&genre=").append(encode(catalog.randomGenre()));
+        }
+        String body = call(report, "browse", "GET /api/books", get(query.toString()), 200);
+        // About a third of listings are paged past the first page
+        if (body != null && random.nextInt(3) == 0) {
+            try {
+                JsonNode cursor = objectMapper.readTree(body).path("nextCursor");
+                if (cursor.isTextual()) {
+                    call(report, "browse", "GET /api/books",
+                            get(query + "&cursor=" + encode(cursor.asText())), 200);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable catalog page", e);
+            }
+        }
+    }
+
+    private void addToCart(LatencyReport report) {
+        // A small share of adds name a volume that is only in Google Books and gets imported
+        String bookId = ThreadLocalRandom.current().nextInt(20) == 0 ? catalog.newGoogleId() : catalog.randomId();
+        String body = "{\"bookId\": \"" + bookId + "\", \"quantity\": 1}";
+        if (call(report, "cart-add", "POST /api/cart/add", authorized(post("/api/cart/add", body)), 201) != null) {
+            cart.add(bookId);
+        }
+    }
+
+    private void updateCart(LatencyReport report) {
+        if (cart.isEmpty()) {
+            addToCart(report);
+            return;
+        }
+        String bookId = cart.get(ThreadLocalRandom.current().nextInt(cart.size()));
+        int quantity = 1 + ThreadLocalRandom.current().nextInt(4);
+        call(report, "cart-update", "PUT /api/cart/{bookId}",
+                authorized(request("/api/cart/" + bookId + "?quantity=" + quantity)
+                        .PUT(HttpRequest.BodyPublishers.noBody())), 200);
+    }
+
+    private void checkout(LatencyReport report) {
+        if (cart.isEmpty()) {
+            addToCart(report);
+            return;
+        }
+        // As a storefront would, so a retried checkout can't place a second order
+        HttpRequest.Builder request = authorized(post("/api/cart/checkout", ""))
+                .header("Idempotency-Key", UUID.randomUUID().toString());
+        if (call(report, "checkout", "POST /api/cart/checkout", request, 200) != null) {
+            cart.clear();
+        }
+    }
+
+    private void login(LatencyReport report) {
+        String body = "{\"email\": \"" + email + "\", \"password\": \"" + PASSWORD + "\"}";
+        String response = call(report, "login", "POST /api/auth/login", post("/api/auth/login", body), 200);
+        if (response != null) {
+            try {
+                token = objectMapper.readTree(response).path("token").asText();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable login response", e);
+            }
+        }
+    }
+
+    /** Sends the request and records it; returns the body, or null if the status was not {@code expected}. */
+    private String call(LatencyReport report, String operation, String endpoint, HttpRequest.Builder request,
+                        int expected) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() == expected;
+            report.record(operation, endpoint, System.nanoTime() - start, !ok);
+            return ok ? response.body() : null;
+        } catch (IOException e) {
+            report.record(operation, endpoint, System.nanoTime() - start, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
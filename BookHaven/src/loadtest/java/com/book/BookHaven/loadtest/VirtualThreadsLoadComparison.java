@@ -0,0 +1,67 @@
+package com.book.BookHaven.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The storefront mix at {@code loadtest.connections} concurrent connections (default 1000), once
+ * with platform-thread Tomcat and once with {@code spring.threads.virtual.enabled}, each on a
+ * freshly booted application and database. Both reports are logged and written to
+ * {@code target/loadtest-virtual-threads.json}; nothing is asserted, the comparison is the output.
+ * Not part of the SLO run: {@code mvn -Ploadtest test -Dtest=VirtualThreadsLoadComparison}.
+ * Needs JDK 21+.
+ */
+@Slf4j
+class VirtualThreadsLoadComparison {
+
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 1000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need JDK 21+");
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("database", LoadTestEnvironment.POSTGRES_IMAGE);
+        results.put("connections", CONNECTIONS);
+        results.put("durationSeconds", DURATION.toSeconds());
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual" : "platform";
+            try (LoadTestEnvironment environment =
+                         LoadTestEnvironment.start("--spring.threads.virtual.enabled=" + virtualThreads)) {
+                // Default client executor: a small fixed pool would cap the client before the server
+                HttpClient http = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .build();
+                List<Shopper> shoppers = environment.shoppers(CONNECTIONS, http, new ObjectMapper());
+                LoadTestEnvironment.run(shoppers, WARMUP);
+                LatencyReport report = LoadTestEnvironment.run(shoppers, DURATION);
+
+                Map<String, Map<String, Object>> operations = report.summary(DURATION);
+                long requests = operations.values().stream().mapToLong(row -> (long) row.get("requests")).sum();
+                long errors = operations.values().stream().mapToLong(row -> (long) row.get("errors")).sum();
+                log.info("{} threads, {} connections: {} req/s, {} errors{}", mode, CONNECTIONS,
+                        requests / DURATION.toSeconds(), errors, report.format(DURATION));
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("throughput", requests / (double) DURATION.toSeconds());
+                result.put("errors", errors);
+                result.put("operations", operations);
+                results.put(mode, result);
+            }
+        }
+        Path file = Path.of("target", "loadtest-virtual-threads.json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+    }
+}
@@ -0,0 +1,39 @@
+package com.book.BookHaven.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${cache.userCart.spec}")
+    private String userCartSpec;
+
+    @Value("${cache.cartCount.spec}")
+    private String cartCountSpec;
+
+    @Value("${cache.cartTotal.spec}")
+    private String cartTotalSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the regions registered below exist; unknown names fail fast instead of growing unbounded
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache("userCart", Caffeine.from(userCartSpec).recordStats().build());
+        cacheManager.registerCustomCache("cartCount", Caffeine.from(cartCountSpec).recordStats().build());
+        cacheManager.registerCustomCache("cartTotal", Caffeine.from(cartTotalSpec).recordStats().build());
+        // Cart writes evict inside their transaction; deferring the eviction to after commit stops a
+        // concurrent read from caching the rows the transaction is about to replace
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
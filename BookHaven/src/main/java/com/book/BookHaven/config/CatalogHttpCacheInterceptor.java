@@ -0,0 +1,83 @@
+package com.book.BookHaven.config;
+
+import com.book.BookHaven.service.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+/**
+ * Conditional GETs for the public catalog endpoints. Every representation is tagged with the
+ * {@link CatalogVersion}, and a matching {@code If-None-Match} is answered with 304 before the
+ * controller, and so any repository, is reached. The tag is taken before the handler runs, so
+ * the body it labels is never older than the version it names.
+ *
+ * <p>The tag and {@code Cache-Control} go out only with successful bodies, so a shared cache never
+ * keeps an error (a bad cursor, an outage) for the max-age.</p>
+ */
+@ControllerAdvice
+public class CatalogHttpCacheInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String ETAG_ATTRIBUTE = CatalogHttpCacheInterceptor.class.getName() + ".etag";
+
+    private final CatalogVersion catalogVersion;
+    private final String cacheControl;
+
+    public CatalogHttpCacheInterceptor(CatalogVersion catalogVersion,
+                                       @Value("${catalog.http-cache.max-age:60s}") Duration maxAge) {
+        this.catalogVersion = catalogVersion;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        String etag = catalogVersion.etag();
+        // Without the response the check only compares; headers are written once the outcome is known
+        if (new ServletWebRequest(request).checkNotModified(etag)) {
+            // Sets the 304 status and the ETag header
+            new ServletWebRequest(request, response).checkNotModified(etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && servletRequest.getServletRequest().getAttribute(ETAG_ATTRIBUTE) instanceof String etag
+                && HttpStatusCode.valueOf(servletResponse.getServletResponse().getStatus()).is2xxSuccessful()) {
+            response.getHeaders().setETag(etag);
+            response.getHeaders().setCacheControl(cacheControl);
+        }
+        return body;
+    }
+}
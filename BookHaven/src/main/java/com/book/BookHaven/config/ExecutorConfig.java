@@ -0,0 +1,91 @@
+package com.book.BookHaven.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for work that leaves the request thread. With {@code spring.threads.virtual.enabled}
+ * each task gets its own virtual thread and the former pool bounds become concurrency limits.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Runs Google Books imports for add-to-cart off the request thread and outside any
+     * transaction. Bounded on both threads and queue so a Google slowdown sheds load
+     * (RejectedExecutionException) instead of piling up work.
+     */
+    @Bean
+    public AsyncTaskExecutor bookImportExecutor(
+            @Value("${cart.book-import.pool-size:8}") int poolSize,
+            @Value("${cart.book-import.queue-capacity:100}") int queueCapacity) {
+        if (virtualThreads) {
+            // Queued tasks would only be waiting on the Google bulkhead anyway, so admit as many as
+            // the pool and queue held together and reject beyond that
+            SimpleAsyncTaskExecutor executor = virtualExecutor("book-import-", poolSize + queueCapacity);
+            executor.setRejectTasksWhenLimitReached(true);
+            executor.setTaskTerminationTimeout(10_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("book-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Runs bulk import jobs, one thread per job; further jobs wait in a short queue. Stays on
+     * platform threads: there are only a few, and they mostly wait on the fetch executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor catalogImportExecutor(
+            @Value("${catalog.import.max-running-jobs:2}") int maxRunningJobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxRunningJobs);
+        executor.setMaxPoolSize(maxRunningJobs);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("catalog-import-");
+        return executor;
+    }
+
+    /**
+     * Fetches volumes for bulk imports. The pool size (or, on virtual threads, the concurrency
+     * limit) is the import's outbound concurrency; jobs only enqueue one chunk at a time, which
+     * keeps the queue bounded. On virtual threads a job blocks submitting past the limit.
+     */
+    @Bean
+    public AsyncTaskExecutor catalogImportFetchExecutor(
+            @Value("${catalog.import.concurrency:8}") int concurrency) {
+        if (virtualThreads) {
+            return virtualExecutor("catalog-import-fetch-", concurrency);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("catalog-import-fetch-");
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
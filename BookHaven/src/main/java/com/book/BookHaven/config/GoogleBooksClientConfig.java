@@ -0,0 +1,143 @@
+package com.book.BookHaven.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Outbound client for the Google Books API: a pooled keep-alive HTTP client with strict
+ * timeouts, plus the circuit breaker, bulkhead and retry that {@code GoogleBooksClient}
+ * wraps around every call.
+ */
+@Configuration
+public class GoogleBooksClientConfig {
+
+    public static final String CLIENT_NAME = "googleBooks";
+
+    /**
+     * The pooled client is a bean of its own so the context closes it, and with it the pooled
+     * sockets, on shutdown or refresh.
+     */
+    @Bean
+    public CloseableHttpClient googleBooksHttpClient(
+            @Value("${google.books.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${google.books.http.read-timeout:3s}") Duration readTimeout,
+            @Value("${google.books.http.connection-request-timeout:500ms}") Duration connectionRequestTimeout,
+            @Value("${google.books.http.max-connections:50}") int maxConnections,
+            @Value("${google.books.http.idle-timeout:30s}") Duration idleTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                // Every request goes to the same host
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                // Retries are owned by resilience4j so they get backoff and count against the breaker
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate googleBooksRestTemplate(@Qualifier("googleBooksHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public CircuitBreaker googleBooksCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${google.books.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${google.books.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${google.books.circuit-breaker.slow-call-duration:2s}") Duration slowCallDuration,
+            @Value("${google.books.circuit-breaker.wait-in-open-state:30s}") Duration waitInOpenState) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(10, slidingWindowSize))
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .recordException(GoogleBooksClientConfig::isOutage)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(CLIENT_NAME);
+    }
+
+    @Bean
+    public Bulkhead googleBooksBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${google.books.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${google.books.bulkhead.max-wait:100ms}") Duration maxWait) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(CLIENT_NAME);
+    }
+
+    @Bean
+    public Retry googleBooksRetry(
+            MeterRegistry meterRegistry,
+            @Value("${google.books.retry.max-attempts:3}") int maxAttempts,
+            @Value("${google.books.retry.initial-interval:200ms}") Duration initialInterval) {
+        RetryConfig config = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                // Exponential backoff with +/-50% jitter so retries from many callers don't align
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(initialInterval, 2.0, 0.5))
+                .retryOnException(GoogleBooksClientConfig::isOutage)
+                .build();
+        RetryRegistry registry = RetryRegistry.of(config);
+        TaggedRetryMetrics.ofRetryRegistry(registry).bindTo(meterRegistry);
+        return registry.retry(CLIENT_NAME);
+    }
+
+    /** I/O errors, timeouts, 5xx and 429 mean Google is struggling; other 4xx are valid answers. */
+    public static boolean isOutage(Throwable e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+}
@@ -1,11 +1,14 @@
 package com.book.BookHaven.config;
 
 import com.book.BookHaven.service.JwtService;
+import com.book.BookHaven.service.TokenVersionService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,10 +28,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final boolean statelessAuthentication;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   TokenVersionService tokenVersionService,
+                                   @Value("${jwt.stateless:true}") boolean statelessAuthentication) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.statelessAuthentication = statelessAuthentication;
     }
 
     @Override
@@ -37,9 +46,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String path = request.getRequestURI();
 
-            // DEBUG: Log the request
-            System.out.println("🌐 Request: " + request.getMethod() + " " + path);
-
             if (path.equals("/api/auth/login") || path.equals("/api/auth/register") ||
                     path.startsWith("/h2-console/") ||
                     (path.startsWith("/api/books") && "GET".equalsIgnoreCase(request.getMethod()))) {
@@ -47,53 +53,64 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-
-
-
-
             String authHeader = request.getHeader("Authorization");
-            System.out.println("🔍 Auth header: " + authHeader); // DEBUG
-
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("❌ No valid auth header found"); // DEBUG
                 chain.doFilter(request, response);
                 return;
             }
 
             String jwt = authHeader.substring(7);
-            String email = jwtService.extractUsername(jwt);
-            System.out.println("👤 Email from token: " + email); // DEBUG
+            // Verifies signature and expiry once; everything below reuses these claims
+            Claims claims = jwtService.getClaims(jwt);
+            String email = claims.getSubject();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                System.out.println("📋 User details loaded: " + userDetails.getUsername()); // DEBUG
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    Claims claims = jwtService.getClaims(jwt);
-                    List<String> roles = claims.get("authorities", List.class);
-                    System.out.println("🔑 Roles from token: " + roles); // DEBUG
+                List<String> roles = claims.get("authorities", List.class);
+                List<GrantedAuthority> authorities = roles.stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
 
-                    List<GrantedAuthority> authorities = roles.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
-
-                    System.out.println("✅ Granted authorities: " + authorities); // DEBUG
+                UserDetails userDetails = resolvePrincipal(email, claims, authorities);
 
+                if (userDetails != null && email.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, authorities);
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("🎯 Authentication set successfully"); // DEBUG
-                } else {
-                    System.out.println("❌ Token validation failed"); // DEBUG
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Rejected revoked or mismatched token for " + request.getRequestURI());
                 }
             }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or tampered tokens are routine; never log the token itself
+            if (logger.isDebugEnabled()) {
+                logger.debug("Invalid JWT: " + e.getMessage());
+            }
         } catch (Exception e) {
-            System.out.println("💥 JWT Filter error: " + e.getMessage()); // DEBUG
             logger.error("JWT Filter error: ", e);
         }
 
         chain.doFilter(request, response);
     }
+
+    /**
+     * Builds the principal from the verified claims when the token carries a user id and token
+     * version, so authenticated requests need no user query. Returns null for revoked tokens.
+     */
+    private UserDetails resolvePrincipal(String email, Claims claims, List<GrantedAuthority> authorities) {
+        String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+        Integer tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        if (!statelessAuthentication || userId == null || tokenVersion == null) {
+            // Tokens issued before the user id and version were embedded still need the lookup
+            return userDetailsService.loadUserByUsername(email);
+        }
+        if (!tokenVersionService.isCurrent(userId, tokenVersion)) {
+            return null;
+        }
+        return org.springframework.security.core.userdetails.User.withUsername(email)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
 }
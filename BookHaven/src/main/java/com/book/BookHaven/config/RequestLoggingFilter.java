@@ -0,0 +1,166 @@
+package com.book.BookHaven.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every request with a correlation id (taken from {@code X-Request-Id} when the caller
+ * sends a sane one) that is put in the MDC for all log lines of the request and echoed back.
+ * One structured line is written per request: always for errors, sampled otherwise. Async
+ * requests, such as streamed exports, are logged when they complete rather than when the
+ * request thread hands them off.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final Set<String> REDACTED_PARAMETERS = Set.of(
+            "token", "access_token", "refresh_token", "jwt", "password", "code");
+
+    private final double sampleRate;
+
+    public RequestLoggingFilter(@Value("${logging.request.sample-rate:0.1}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (failure == null && request.isAsyncStarted()) {
+                // Streaming responses are still being written; log once the async request completes
+                request.getAsyncContext().addListener(new CompletionLogger(request, response, requestId, start));
+            } else {
+                logRequest(request, response, (System.nanoTime() - start) / 1_000_000, failure);
+            }
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    /** Writes the request line for an async request when it completes, with its request id back in the MDC. */
+    private final class CompletionLogger implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final String requestId;
+        private final long start;
+        private volatile Throwable failure;
+
+        private CompletionLogger(HttpServletRequest request, HttpServletResponse response, String requestId, long start) {
+            this.request = request;
+            this.response = response;
+            this.requestId = requestId;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            MDC.put(REQUEST_ID_MDC_KEY, requestId);
+            try {
+                logRequest(request, response, (System.nanoTime() - start) / 1_000_000, failure);
+            } finally {
+                MDC.remove(REQUEST_ID_MDC_KEY);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failure = event.getThrowable();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // The container completes the request with an error status; onComplete logs it
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle drops its listeners; stay registered until the final completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, long durationMs,
+                            Throwable failure) {
+        int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        boolean error = status >= 500;
+        if (!error && status < 400 && !sampled()) {
+            return;
+        }
+        if (!(error ? log.isWarnEnabled() : log.isInfoEnabled())) {
+            return;
+        }
+        (error ? log.atWarn() : log.atInfo())
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", redactedUri(request))
+                .addKeyValue("status", status)
+                .addKeyValue("durationMs", durationMs)
+                .setCause(failure)
+                .log("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, durationMs);
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /** Request path plus query string with credential-like parameter values masked. */
+    static String redactedUri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query == null) {
+            return request.getRequestURI();
+        }
+        StringBuilder uri = new StringBuilder(request.getRequestURI()).append('?');
+        String[] parameters = query.split("&");
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                uri.append('&');
+            }
+            String parameter = parameters[i];
+            int eq = parameter.indexOf('=');
+            String name = eq >= 0 ? parameter.substring(0, eq) : parameter;
+            if (eq >= 0 && REDACTED_PARAMETERS.contains(name.toLowerCase(Locale.ROOT))) {
+                uri.append(name).append("=***");
+            } else {
+                uri.append(parameter);
+            }
+        }
+        return uri.toString();
+    }
+}
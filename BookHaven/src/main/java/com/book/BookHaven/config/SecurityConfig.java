@@ -1,19 +1,26 @@
 package com.book.BookHaven.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -32,6 +39,44 @@ public class SecurityConfig {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
 
+    /**
+     * /actuator/prometheus is for scrapers: an ADMIN token works, and so does HTTP Basic with the
+     * scrape credential from {@code metrics.scrape.*}, which grants nothing but METRICS. Without a
+     * scrape password only ADMIN can read metrics.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+                                                     @Value("${metrics.scrape.username:prometheus}") String scrapeUsername,
+                                                     @Value("${metrics.scrape.password:}") String scrapePassword) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyAuthority("ADMIN", "METRICS"))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+        if (StringUtils.hasText(scrapePassword)) {
+            DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+                    User.withUsername(scrapeUsername)
+                            .password(passwordEncoder.encode(scrapePassword))
+                            .authorities("METRICS")
+                            .build()));
+            scrapeProvider.setPasswordEncoder(passwordEncoder);
+            http
+                    .authenticationManager(new ProviderManager(scrapeProvider))
+                    .httpBasic(Customizer.withDefaults());
+        } else {
+            http.exceptionHandling(ex -> ex
+                    .authenticationEntryPoint((req, res, ex1) -> {
+                        res.setStatus(401);
+                        res.getWriter().write("{\"message\": \"Unauthorized\"}");
+                    }));
+        }
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -41,6 +86,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/h2-console/**", "/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**", "/api/admin/**").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/books/**").permitAll()
                         .requestMatchers("/api/cart/**", "/api/my-books").authenticated()
                         .anyRequest().authenticated()
@@ -0,0 +1,47 @@
+package com.book.BookHaven.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled} on JDK 21+. Tomcat then no longer caps
+ * in-flight requests with its thread pool, so a burst would park every request inside Hikari
+ * for up to its connection timeout. The pool is fronted by a fair semaphore of the same size
+ * that fails callers after {@code spring.datasource.connection-limit.max-wait}; outbound Google
+ * calls are already limited by the {@code googleBooks} bulkhead.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.connection-limit.max-wait:2s}") Duration maxWait,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                ConnectionLimitingDataSource limited =
+                        new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(), maxWait);
+                meterRegistry.ifAvailable(registry -> Gauge
+                        .builder("db.connection.limit.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Free permits of the semaphore in front of the connection pool")
+                        .register(registry));
+                return limited;
+            }
+        };
+    }
+}
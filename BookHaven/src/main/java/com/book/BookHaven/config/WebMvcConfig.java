@@ -0,0 +1,23 @@
+package com.book.BookHaven.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final CatalogHttpCacheInterceptor catalogHttpCacheInterceptor;
+
+    public WebMvcConfig(CatalogHttpCacheInterceptor catalogHttpCacheInterceptor) {
+        this.catalogHttpCacheInterceptor = catalogHttpCacheInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // The NDJSON export streams the whole catalog and is not meant to be cached
+        registry.addInterceptor(catalogHttpCacheInterceptor)
+                .addPathPatterns("/api/books", "/api/books/**")
+                .excludePathPatterns("/api/books/export");
+    }
+}
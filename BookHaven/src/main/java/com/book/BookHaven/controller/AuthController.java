@@ -58,6 +58,17 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Unauthorized"));
+        }
+
+        authService.logoutAll(userDetails.getUsername());
+        return ResponseEntity.ok(Map.of("message", "Logged out from all devices"));
+    }
+
     @GetMapping("/validate-token")
     public ResponseEntity<?> validateToken(@AuthenticationPrincipal UserDetails userDetails) {
         try {
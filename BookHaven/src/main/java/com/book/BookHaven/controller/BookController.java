@@ -4,10 +4,12 @@ import com.book.BookHaven.dto.BookRequest;
 import com.book.BookHaven.dto.BookResponse;
 import com.book.BookHaven.service.BookService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -23,18 +25,35 @@ public class BookController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BookResponse>> getAllBooks(
+    public ResponseEntity<?> getAllBooks(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String genre,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (limit != null || cursor != null) {
+                return ResponseEntity.ok(bookService.getBookPage(search, genre, sortBy, sortOrder, limit, cursor));
+            }
             return ResponseEntity.ok(bookService.getAllBooks(search, genre, sortBy, sortOrder));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder) {
+        StreamingResponseBody body = out -> bookService.exportBooks(search, genre, sortBy, sortOrder, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getBookById(@PathVariable String id) {
         return ResponseEntity.ok(bookService.getBookById(id));
@@ -0,0 +1,39 @@
+package com.book.BookHaven.controller;
+
+import com.book.BookHaven.dto.BookImportRequest;
+import com.book.BookHaven.dto.BookImportStatus;
+import com.book.BookHaven.service.BookImportService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/book-imports")
+public class BookImportController {
+
+    private final BookImportService bookImportService;
+
+    public BookImportController(BookImportService bookImportService) {
+        this.bookImportService = bookImportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<BookImportStatus> startImport(@Valid @RequestBody BookImportRequest request,
+                                                        @AuthenticationPrincipal UserDetails userDetails) {
+        BookImportStatus status = bookImportService.startImport(request, userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BookImportStatus> getStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(bookImportService.getStatus(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<BookImportStatus> resume(@PathVariable String jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookImportService.resume(jobId));
+    }
+}
@@ -1,10 +1,13 @@
 package com.book.BookHaven.controller;
 
+import com.book.BookHaven.dto.CartBatchRequest;
 import com.book.BookHaven.dto.CartItemRequest;
 import com.book.BookHaven.dto.CartItemResponse;
+import com.book.BookHaven.dto.OrderResponse;
 import com.book.BookHaven.exception.ResourceNotFoundException;
 import com.book.BookHaven.exception.ValidationException;
 import com.book.BookHaven.service.CartService;
+import com.book.BookHaven.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,9 +24,11 @@ import java.util.Map;
 public class CartController {
 
     private final CartService cartService;
+    private final OrderService orderService;
 
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, OrderService orderService) {
         this.cartService = cartService;
+        this.orderService = orderService;
     }
 
     @GetMapping
@@ -48,6 +53,16 @@ public class CartController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@Valid @RequestBody CartBatchRequest request,
+                                        @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            return ResponseEntity.ok(cartService.applyBatch(request, userDetails.getUsername()));
+        } catch (ResourceNotFoundException | ValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{bookId}")
     public ResponseEntity<?> updateCartItem(@PathVariable String bookId,
                                             @RequestParam int quantity,
@@ -85,10 +100,11 @@ public class CartController {
     }
 
     @PostMapping("/checkout")
-    public ResponseEntity<?> checkout(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> checkout(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                      @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            String response = cartService.checkout(userDetails.getUsername());
-            return ResponseEntity.ok(Map.of("message", response));
+            OrderResponse response = orderService.checkout(userDetails.getUsername(), idempotencyKey);
+            return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException | ValidationException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
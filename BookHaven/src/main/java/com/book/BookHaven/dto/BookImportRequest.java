@@ -0,0 +1,21 @@
+package com.book.BookHaven.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.List;
+
+/** Either explicit Google volume ids or a search query (with how many results to import). */
+@Data
+public class BookImportRequest {
+
+    private List<String> volumeIds;
+
+    private String query;
+
+    @Min(1)
+    private Integer maxResults;
+
+    // Re-fetch and update volumes that are already in the catalog instead of skipping them
+    private boolean overwrite;
+}
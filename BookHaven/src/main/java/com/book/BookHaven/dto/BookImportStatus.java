@@ -0,0 +1,36 @@
+package com.book.BookHaven.dto;
+
+import com.book.BookHaven.entity.BookImportJob;
+import com.book.BookHaven.entity.BookImportProgress;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class BookImportStatus {
+
+    private String jobId;
+    private String status;
+    private String query;
+    private int total;
+    private int processed;
+    private int imported;
+    private int skipped;
+    private int failed;
+    private double booksPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static BookImportStatus fromProgress(BookImportProgress job) {
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+        double seconds = job.getStartedAt() != null ? Duration.between(job.getStartedAt(), end).toMillis() / 1000.0 : 0;
+        double booksPerSecond = seconds > 0 ? job.getImported() / seconds : 0;
+        return new BookImportStatus(job.getId(), job.getStatus().name(), job.getQuery(), job.getTotal(),
+                Math.min(job.getNextIndex(), job.getTotal()), job.getImported(), job.getSkipped(), job.getFailed(),
+                booksPerSecond, job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+}
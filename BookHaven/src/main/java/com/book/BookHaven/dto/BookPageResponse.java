@@ -0,0 +1,19 @@
+package com.book.BookHaven.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookPageResponse {
+
+    private List<BookResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public BookPageResponse(List<BookResponse> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+}
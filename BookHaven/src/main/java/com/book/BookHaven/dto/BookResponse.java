@@ -1,5 +1,6 @@
 package com.book.BookHaven.dto;
 
+import com.book.BookHaven.entity.Book;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -36,4 +37,38 @@ public class BookResponse {
         this.addedBy = addedBy;
         this.createdAt = createdAt;
     }
+
+    public static BookResponse fromEntity(Book book) {
+        return new BookResponse(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getPublicationDate(),
+                book.getGenre(),
+                book.getDescription(),
+                book.getPrice(),
+                book.getImage(),
+                book.getRating(),
+                book.isInStock(),
+                book.getAddedBy(),
+                book.getCreatedAt()
+        );
+    }
+
+    public static BookResponse fromSummary(BookSummary book) {
+        return new BookResponse(
+                book.id(),
+                book.title(),
+                book.author(),
+                book.publicationDate(),
+                book.genre(),
+                null,
+                book.price(),
+                book.image(),
+                book.rating(),
+                book.inStock(),
+                book.addedBy(),
+                book.createdAt()
+        );
+    }
 }
\ No newline at end of file
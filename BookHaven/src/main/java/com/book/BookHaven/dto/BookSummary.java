@@ -0,0 +1,14 @@
+package com.book.BookHaven.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Listing projection of {@link com.book.BookHaven.entity.Book}. It deliberately leaves out
+ * the description so catalog listings never read or ship the large text column.
+ */
+public record BookSummary(String id, String title, String author, LocalDate publicationDate, String genre,
+                          BigDecimal price, String image, double rating, boolean inStock, String addedBy,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.book.BookHaven.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/** Cart operations applied in order, all in one transaction. */
+@Data
+public class CartBatchRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid CartOperation> operations;
+}
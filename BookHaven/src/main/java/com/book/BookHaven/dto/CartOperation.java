@@ -0,0 +1,29 @@
+package com.book.BookHaven.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/** One step of a {@link CartBatchRequest}. */
+@Data
+public class CartOperation {
+
+    public enum Action {
+        /** Adds {@code quantity} (default 1) to the line, creating it if needed. */
+        ADD,
+        /** Sets the line to {@code quantity}, creating it if needed; 0 removes it. */
+        UPDATE,
+        /** Removes the line if it exists. */
+        REMOVE
+    }
+
+    @NotNull
+    private Action action;
+
+    @NotBlank
+    private String bookId;
+
+    @Min(0)
+    private Integer quantity;
+}
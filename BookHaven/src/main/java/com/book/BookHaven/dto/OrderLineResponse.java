@@ -0,0 +1,26 @@
+package com.book.BookHaven.dto;
+
+import com.book.BookHaven.entity.OrderLine;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderLineResponse {
+
+    private String bookId;
+    private String title;
+    private BigDecimal unitPrice;
+    private int quantity;
+
+    public OrderLineResponse(String bookId, String title, BigDecimal unitPrice, int quantity) {
+        this.bookId = bookId;
+        this.title = title;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    public static OrderLineResponse fromEntity(OrderLine line) {
+        return new OrderLineResponse(line.getBookId(), line.getTitle(), line.getUnitPrice(), line.getQuantity());
+    }
+}
@@ -0,0 +1,37 @@
+package com.book.BookHaven.dto;
+
+import com.book.BookHaven.entity.Order;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class OrderResponse {
+
+    private String orderId;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private List<OrderLineResponse> items;
+    // Same text checkout has always answered with
+    private String message;
+
+    public OrderResponse(String orderId, BigDecimal totalAmount, LocalDateTime createdAt,
+                         List<OrderLineResponse> items) {
+        this.orderId = orderId;
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+        this.items = items;
+        this.message = String.format("Checkout successful. Total amount: $%.2f", totalAmount);
+    }
+
+    public static OrderResponse fromEntity(Order order) {
+        return new OrderResponse(
+                order.getId().toString(),
+                order.getTotalAmount(),
+                order.getCreatedAt(),
+                order.getLines().stream().map(OrderLineResponse::fromEntity).toList()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.book.BookHaven.dto;
+
+/**
+ * The parts of a {@link com.book.BookHaven.entity.User} that request handling needs once the
+ * caller is authenticated: the id that cart and order rows reference, and the role.
+ */
+public record UserIdentity(String userId, String role) {
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -13,7 +13,18 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books",
+        indexes = {
+                // One (sort key, id) index per catalog ordering, matching BookSortKey's ORDER BY
+                @Index(name = "idx_books_title_id", columnList = "title, id"),
+                @Index(name = "idx_books_author_id", columnList = "author, id"),
+                @Index(name = "idx_books_price_id", columnList = "price, id"),
+                @Index(name = "idx_books_rating_id", columnList = "rating, id"),
+                @Index(name = "idx_books_publication_date_id", columnList = "publicationDate, id"),
+                @Index(name = "idx_books_genre_title_id", columnList = "genre, title, id"),
+                @Index(name = "idx_books_created_at", columnList = "createdAt"),
+                @Index(name = "idx_books_added_by", columnList = "addedBy")
+        })
 @Data
 @NoArgsConstructor
 public class Book {
@@ -24,7 +35,8 @@ public class Book {
     @Column(nullable = false, length = 500) // title can be long
     private String title;
 
-    @Column(length = 255)
+    // Not null so listings sorted by author have a total order and cursors a real key value
+    @Column(nullable = false, length = 255)
     private String author;
 
     @Column(nullable = false)
@@ -48,6 +60,10 @@ public class Book {
     @Column(nullable = false)
     private boolean inStock;
 
+    // Copies left to sell, taken by checkout with BookRepository.reserveStock. Null when copies
+    // aren't counted (Google Books imports): such a book sells for as long as inStock is set
+    private Integer stock;
+
     @Column(length = 255)
     private String addedBy;
 
@@ -0,0 +1,96 @@
+package com.book.BookHaven.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One bulk catalog import. {@code nextIndex} is the job's cursor: volumes before it have been
+ * written and counted. A chunk moves it and adds its counts in one conditional update, so a
+ * job that failed, or was cut off by a restart, resumes from the first chunk it had not
+ * finished without counting any chunk twice.
+ */
+@Entity
+@Table(name = "book_import_jobs",
+        indexes = {
+                @Index(name = "idx_book_import_jobs_finished_at", columnList = "finished_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Either the ids to import, deduped in the caller's order, or a search query
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "volume_ids")
+    private List<String> volumeIds;
+
+    @Column(length = 500)
+    private String query;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private boolean overwrite;
+
+    @Column(name = "started_by", nullable = false)
+    private String startedBy;
+
+    @Column(name = "next_index", nullable = false)
+    private int nextIndex;
+
+    @Column(nullable = false)
+    private int imported;
+
+    @Column(nullable = false)
+    private int skipped;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    // Moves with every chunk; a RUNNING job that stops moving was cut off and may be resumed
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public BookImportJob(List<String> volumeIds, String query, int total, boolean overwrite, String startedBy) {
+        this.id = UUID.randomUUID().toString();
+        this.status = Status.QUEUED;
+        this.volumeIds = volumeIds;
+        this.query = query;
+        this.total = total;
+        this.overwrite = overwrite;
+        this.startedBy = startedBy;
+        this.updatedAt = Instant.now();
+    }
+
+    public boolean isSearch() {
+        return query != null;
+    }
+}
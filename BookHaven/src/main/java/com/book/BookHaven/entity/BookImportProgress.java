@@ -0,0 +1,32 @@
+package com.book.BookHaven.entity;
+
+import java.time.Instant;
+
+/**
+ * Projection of a {@link BookImportJob} with what a status poll needs, so polls don't load the
+ * (possibly long) volume id list.
+ */
+public interface BookImportProgress {
+
+    String getId();
+
+    BookImportJob.Status getStatus();
+
+    String getQuery();
+
+    int getTotal();
+
+    int getNextIndex();
+
+    int getImported();
+
+    int getSkipped();
+
+    int getFailed();
+
+    Instant getStartedAt();
+
+    Instant getFinishedAt();
+
+    String getError();
+}
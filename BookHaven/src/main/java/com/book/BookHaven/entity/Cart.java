@@ -28,8 +28,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Cart {
 
+    // Sequence ids (pooled-lo, 50 per round trip) keep Hibernate's insert batching available;
+    // JDBC inserts take theirs with nextval('cart_seq'), see schema-postgresql.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "User cannot be null")
@@ -0,0 +1,50 @@
+package com.book.BookHaven.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_lines",
+        indexes = {
+                @Index(name = "idx_order_lines_order_id", columnList = "order_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_lines_seq")
+    @SequenceGenerator(name = "order_lines_seq", sequenceName = "order_lines_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_order_lines_order"))
+    private Order order;
+
+    // A plain id with the title and price copied at checkout: the line stays as sold even after
+    // the book is repriced or removed from the catalog
+    @Column(name = "book_id", nullable = false)
+    private String bookId;
+
+    @Column(nullable = false, length = 500)
+    private String title;
+
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    public OrderLine(String bookId, String title, BigDecimal unitPrice, int quantity) {
+        this.bookId = bookId;
+        this.title = title;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+}
@@ -1,10 +1,12 @@
 package com.book.BookHaven.entity;
 
+import com.book.BookHaven.service.UserIdentityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserIdentityListener.class)
 public class User implements org.springframework.security.core.userdetails.UserDetails {
 
     @Id
@@ -18,6 +20,10 @@ public class User implements org.springframework.security.core.userdetails.UserD
 
     private String role;
 
+    // Bumped to revoke every token issued so far; tokens carry the version they were issued with
+    @Column(name = "token_version", columnDefinition = "integer default 0 not null")
+    private int tokenVersion;
+
     public User() {}
 
     public User(String id, String username, String email, String password, LocalDateTime createdAt, String role) {
@@ -42,6 +48,8 @@ public class User implements org.springframework.security.core.userdetails.UserD
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
 
     @Override
     public java.util.Collection<? extends org.springframework.security.core.GrantedAuthority> getAuthorities() {
@@ -0,0 +1,30 @@
+package com.book.BookHaven.event;
+
+import com.book.BookHaven.entity.Book;
+
+import java.util.List;
+
+/**
+ * Published after books are written to or removed from the catalog so in-memory
+ * views of the catalog can be kept in sync without re-reading the table.
+ * {@code insertedOnly} marks events that only add books nobody could have referenced yet.
+ */
+public record CatalogChangedEvent(List<Book> upserted, List<String> removedIds, boolean insertedOnly) {
+
+    public static CatalogChangedEvent upserted(Book book) {
+        return new CatalogChangedEvent(List.of(book), List.of(), false);
+    }
+
+    public static CatalogChangedEvent upserted(List<Book> books) {
+        return new CatalogChangedEvent(List.copyOf(books), List.of(), false);
+    }
+
+    /** Books that were not in the catalog before this write. */
+    public static CatalogChangedEvent inserted(List<Book> books) {
+        return new CatalogChangedEvent(List.copyOf(books), List.of(), true);
+    }
+
+    public static CatalogChangedEvent removed(String bookId) {
+        return new CatalogChangedEvent(List.of(), List.of(bookId), false);
+    }
+}
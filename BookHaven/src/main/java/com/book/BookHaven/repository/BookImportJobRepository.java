@@ -0,0 +1,74 @@
+package com.book.BookHaven.repository;
+
+import com.book.BookHaven.entity.BookImportJob;
+import com.book.BookHaven.entity.BookImportJob.Status;
+import com.book.BookHaven.entity.BookImportProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Import job rows. State changes are conditional updates rather than entity saves, so a runner
+ * holding a stale copy of the job can never overwrite another runner's progress.
+ */
+@Repository
+public interface BookImportJobRepository extends JpaRepository<BookImportJob, String> {
+
+    Optional<BookImportProgress> findProgressById(String id);
+
+
+    /** Claims a queued job for this runner; 0 when another runner got to it first. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookImportJob j SET j.status = :running, j.startedAt = COALESCE(j.startedAt, :now), " +
+            "j.updatedAt = :now WHERE j.id = :id AND j.status = :queued")
+    int start(@Param("id") String id, @Param("queued") Status queued, @Param("running") Status running,
+              @Param("now") Instant now);
+
+
+    /**
+     * Records a finished chunk: moves the cursor from {@code from} to {@code to} and adds the
+     * chunk's counts. Matches nothing (returns 0) if the chunk was already recorded.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookImportJob j SET j.nextIndex = :to, j.imported = j.imported + :imported, " +
+            "j.skipped = j.skipped + :skipped, j.failed = j.failed + :failed, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.nextIndex = :from")
+    int advance(@Param("id") String id, @Param("from") int from, @Param("to") int to,
+                @Param("imported") int imported, @Param("skipped") int skipped, @Param("failed") int failed,
+                @Param("now") Instant now);
+
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookImportJob j SET j.status = :status, j.error = :error, j.finishedAt = :now, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int finish(@Param("id") String id, @Param("status") Status status, @Param("error") String error,
+               @Param("now") Instant now);
+
+
+    /**
+     * Queues a failed job again, or a queued/running one that stopped moving before
+     * {@code staleBefore} (its instance went away). 0 when the job isn't resumable.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookImportJob j SET j.status = :queued, j.error = NULL, j.finishedAt = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :id AND (j.status = :failed " +
+            "OR ((j.status = :queued OR j.status = :running) AND j.updatedAt < :staleBefore))")
+    int requeue(@Param("id") String id, @Param("queued") Status queued, @Param("running") Status running,
+                @Param("failed") Status failed, @Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookImportJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,29 +1,75 @@
 package com.book.BookHaven.repository;
 
+import com.book.BookHaven.dto.BookSummary;
 import com.book.BookHaven.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, String> {
+public interface BookRepository extends JpaRepository<Book, String>, BookRepositoryCustom {
 
-    List<Book> findByAddedBy(String addedBy);
+    List<BookSummary> findByAddedBy(String addedBy);
 
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    Set<String> findExistingIds(Collection<String> ids);
+
+    // Ordering comes from the whitelisted BookSortKey, never from raw request input
+    @Query("SELECT new com.book.BookHaven.dto.BookSummary(b.id, b.title, b.author, b.publicationDate, b.genre, " +
+            "b.price, b.image, b.rating, b.inStock, b.addedBy, b.createdAt) FROM Book b WHERE " +
+            "(:search IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(b.author) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(b.genre) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+            "(:genre IS NULL OR b.genre = :genre)")
+    List<BookSummary> findSummariesBySearchAndGenre(String search, String genre, Sort sort);
+
+    // Scrolls through a server-side cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("SELECT b FROM Book b WHERE " +
             "(:search IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(b.author) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(b.genre) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
             "(:genre IS NULL OR b.genre = :genre)")
-    List<Book> findBySearchAndGenre(String search, String genre);
+    Stream<Book> streamBySearchAndGenre(String search, String genre, Sort sort);
+
+    /**
+     * Ranked full-text search over the generated {@code search_vector} column (see schema-postgresql.sql),
+     * with trigram similarity on title and author so misspelled queries still match.
+     */
+    @Query(value = "SELECT b.id FROM books b, websearch_to_tsquery('english', :search) q " +
+            "WHERE (b.search_vector @@ q OR lower(b.title) % lower(:search) OR lower(b.author) % lower(:search)) " +
+            "AND (CAST(:genre AS text) IS NULL OR b.genre = :genre) " +
+            "ORDER BY ts_rank_cd(b.search_vector, q) + similarity(lower(b.title), lower(:search)) DESC, b.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<String> findIdsByFullTextSearch(String search, String genre, int limit);
+
+    @Query("SELECT new com.book.BookHaven.dto.BookSummary(b.id, b.title, b.author, b.publicationDate, b.genre, " +
+            "b.price, b.image, b.rating, b.inStock, b.addedBy, b.createdAt) FROM Book b WHERE b.id IN :ids")
+    List<BookSummary> findSummariesByIdIn(Collection<String> ids);
+
+    // Limit and ordering come from the Pageable
+    @Query("SELECT new com.book.BookHaven.dto.BookSummary(b.id, b.title, b.author, b.publicationDate, b.genre, " +
+            "b.price, b.image, b.rating, b.inStock, b.addedBy, b.createdAt) FROM Book b")
+    List<BookSummary> findSummaries(Pageable pageable);
+
+    @Query("SELECT b.id, b.genre FROM Book b")
+    List<Object[]> findAllIdsAndGenres();
 
-    List<Book> findTop3ByOrderByRatingDesc();
+    List<BookSummary> findTop3ByOrderByRatingDesc();
 
-    List<Book> findTop3ByOrderByCreatedAtDesc();
+    List<BookSummary> findTop3ByOrderByCreatedAtDesc();
 
-    List<Book> findByGenreAndIdNot(String genre, String id);
+    List<BookSummary> findTop4ByGenreAndIdNot(String genre, String id);
 
     @Query("SELECT DISTINCT b.genre FROM Book b")
     List<String> findDistinctGenres();
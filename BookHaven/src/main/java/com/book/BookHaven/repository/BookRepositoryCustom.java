@@ -0,0 +1,38 @@
+package com.book.BookHaven.repository;
+
+import com.book.BookHaven.dto.BookSummary;
+import com.book.BookHaven.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Keyset (seek) query: returns up to {@code limit} summaries matching {@code spec} that sort
+     * strictly after ({@code afterValue}, {@code afterId}) when ordered by {@code sortProperty}
+     * and then id. Pass a null {@code afterId} for the first page.
+     */
+    List<BookSummary> findSummariesAfter(Specification<Book> spec, String sortProperty, boolean ascending,
+                                         Object afterValue, String afterId, int limit);
+
+    /**
+     * Inserts the books with JDBC batches, updating the catalog fields of ids that already exist.
+     * Price, stock, owner and creation time of existing rows are left alone.
+     */
+    void upsertAll(List<Book> books);
+
+    /**
+     * Takes {@code quantity} copies of the book with one conditional UPDATE, which only matches
+     * while the book is in stock and, if its copies are counted, has at least that many left.
+     * Taking the last copy marks the book out of stock. Returns the book as of the update, or
+     * empty if it could not be reserved. The row stays locked until the transaction ends.
+     */
+    Optional<ReservedBook> reserveStock(String bookId, int quantity);
+
+    /** Title and price a reservation was made at; {@code soldOut} if it took the last copy. */
+    record ReservedBook(String title, BigDecimal price, boolean soldOut) {
+    }
+}
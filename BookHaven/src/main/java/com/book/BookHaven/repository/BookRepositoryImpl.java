@@ -0,0 +1,108 @@
+package com.book.BookHaven.repository;
+
+import com.book.BookHaven.dto.BookSummary;
+import com.book.BookHaven.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class BookRepositoryImpl implements BookRepositoryCustom {
+
+    private static final String UPSERT_SQL = "INSERT INTO books (id, title, author, publication_date, genre, " +
+            "description, price, image, rating, in_stock, added_by, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, author = EXCLUDED.author, " +
+            "publication_date = EXCLUDED.publication_date, genre = EXCLUDED.genre, " +
+            "description = EXCLUDED.description, image = EXCLUDED.image, rating = EXCLUDED.rating";
+
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    // in_stock and the stock check read the row as it was before this update
+    private static final String RESERVE_SQL = "UPDATE books SET stock = stock - ?, " +
+            "in_stock = (stock IS NULL OR stock > ?) WHERE id = ? AND in_stock AND (stock IS NULL OR stock >= ?)";
+
+    private static final RowMapper<ReservedBook> RESERVED_BOOK = (rs, rowNum) ->
+            new ReservedBook(rs.getString("title"), rs.getBigDecimal("price"), !rs.getBoolean("in_stock"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    BookRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<BookSummary> findSummariesAfter(Specification<Book> spec, String sortProperty, boolean ascending,
+                                                Object afterValue, String afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummary> query = cb.createQuery(BookSummary.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.construct(BookSummary.class,
+                book.get("id"), book.get("title"), book.get("author"), book.get("publicationDate"),
+                book.get("genre"), book.get("price"), book.get("image"), book.get("rating"),
+                book.get("inStock"), book.get("addedBy"), book.get("createdAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate matching = spec.toPredicate(book, query, cb);
+        if (matching != null) {
+            predicates.add(matching);
+        }
+
+        Expression<Comparable> key = book.get(sortProperty);
+        Expression<String> id = book.get("id");
+        if (afterId != null) {
+            Comparable value = (Comparable) afterValue;
+            predicates.add(ascending
+                    ? cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, afterId)))
+                    : cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, afterId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(ascending
+                ? List.of(cb.asc(key), cb.asc(id))
+                : List.of(cb.desc(key), cb.desc(id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public void upsertAll(List<Book> books) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, books, UPSERT_BATCH_SIZE, (ps, book) -> {
+            LocalDateTime createdAt = book.getCreatedAt() != null ? book.getCreatedAt() : LocalDateTime.now();
+            ps.setString(1, book.getId());
+            ps.setString(2, book.getTitle());
+            ps.setString(3, book.getAuthor());
+            ps.setDate(4, Date.valueOf(book.getPublicationDate()));
+            ps.setString(5, book.getGenre());
+            ps.setString(6, book.getDescription());
+            ps.setBigDecimal(7, book.getPrice());
+            ps.setString(8, book.getImage());
+            ps.setDouble(9, book.getRating());
+            ps.setBoolean(10, book.isInStock());
+            ps.setString(11, book.getAddedBy());
+            ps.setTimestamp(12, Timestamp.valueOf(createdAt));
+        });
+    }
+
+    @Override
+    public Optional<ReservedBook> reserveStock(String bookId, int quantity) {
+        return jdbcTemplate.query(RESERVE_SQL + " RETURNING title, price, in_stock", RESERVED_BOOK,
+                quantity, quantity, bookId, quantity).stream().findFirst();
+    }
+}
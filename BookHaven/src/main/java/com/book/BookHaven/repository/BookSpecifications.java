@@ -0,0 +1,31 @@
+package com.book.BookHaven.repository;
+
+import com.book.BookHaven.entity.Book;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {}
+
+    /** Criteria equivalent of {@link BookRepository#findSummariesBySearchAndGenre}. */
+    public static Specification<Book> matching(String search, String genre) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (search != null) {
+                String pattern = "%" + search.toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("title")), pattern),
+                        cb.like(cb.lower(root.get("author")), pattern),
+                        cb.like(cb.lower(root.get("genre")), pattern)));
+            }
+            if (genre != null) {
+                predicates.add(cb.equal(root.get("genre"), genre));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.book.BookHaven.repository;
 
+import com.book.BookHaven.dto.CartItemResponse;
 import com.book.BookHaven.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -11,13 +12,20 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartRepository extends JpaRepository<Cart, Long> {
+public interface CartRepository extends JpaRepository<Cart, Long>, CartRepositoryCustom {
 
 
     @Query("SELECT c FROM Cart c JOIN FETCH c.book WHERE c.user.id = :userId ORDER BY c.createdAt DESC")
     List<Cart> findByUserIdWithBooks(@Param("userId") String userId);
 
 
+    // Cart reads go straight to response rows: no Cart/Book entities are loaded or tracked
+    @Query("SELECT new com.book.BookHaven.dto.CartItemResponse(CAST(c.id AS String), b.id, b.title, b.author, " +
+            "b.genre, b.image, b.price, c.quantity) FROM Cart c JOIN c.book b JOIN c.user u " +
+            "WHERE u.email = :email ORDER BY c.createdAt DESC")
+    List<CartItemResponse> findItemResponsesByUserEmail(@Param("email") String email);
+
+
     List<Cart> findByUserId(String userId);
 
 
@@ -34,6 +42,11 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     int deleteByUserId(@Param("userId") String userId);
 
 
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.user.id = :userId AND c.book.id = :bookId")
+    int deleteByUserIdAndBookId(@Param("userId") String userId, @Param("bookId") String bookId);
+
+
     @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Cart c WHERE c.user.id = :userId AND c.book.id = :bookId")
     boolean existsByUserIdAndBookId(@Param("userId") String userId, @Param("bookId") String bookId);
 
@@ -0,0 +1,37 @@
+package com.book.BookHaven.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CartRepositoryCustom {
+
+    /**
+     * Adds {@code quantity} to the user's cart line for the book, creating the line if there is
+     * none, as one atomic statement. Concurrent calls for the same line all land; none of them
+     * fails on the unique (user_id, book_id) constraint or the version column.
+     */
+    CartLine addQuantity(String userId, String bookId, int quantity);
+
+    /**
+     * Applies several line changes for one user with one JDBC batch per kind of change:
+     * quantities added to lines (created if missing), quantities set on lines (created if
+     * missing) and lines removed. A book id must appear in at most one of the three.
+     */
+    void applyChanges(String userId, Map<String, Integer> additions, Map<String, Integer> quantities,
+                      Collection<String> removals);
+
+    /**
+     * Deletes the user's whole cart and returns what it held, as one statement. Of two concurrent
+     * calls for the same cart, the second waits for the first and then finds nothing to take.
+     */
+    List<CartQuantity> takeAll(String userId);
+
+    /** A cart row as it stands right after {@link #addQuantity}. */
+    record CartLine(long id, int quantity) {
+    }
+
+    /** A book and how many copies of it a cart held. */
+    record CartQuantity(String bookId, int quantity) {
+    }
+}
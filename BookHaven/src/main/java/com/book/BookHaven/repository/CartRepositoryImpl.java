@@ -0,0 +1,69 @@
+package com.book.BookHaven.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class CartRepositoryImpl implements CartRepositoryCustom {
+
+    private static final String ADD_SQL = "INSERT INTO cart (id, user_id, book_id, quantity, created_at, " +
+            "updated_at, version) VALUES (nextval('cart_seq'), ?, ?, ?, ?, ?, 0) " +
+            "ON CONFLICT (user_id, book_id) DO UPDATE SET quantity = cart.quantity + EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at, version = cart.version + 1";
+
+    private static final String SET_SQL = "INSERT INTO cart (id, user_id, book_id, quantity, created_at, " +
+            "updated_at, version) VALUES (nextval('cart_seq'), ?, ?, ?, ?, ?, 0) " +
+            "ON CONFLICT (user_id, book_id) DO UPDATE SET quantity = EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at, version = cart.version + 1";
+
+    private static final String DELETE_SQL = "DELETE FROM cart WHERE user_id = ? AND book_id = ?";
+
+    private static final RowMapper<CartLine> CART_LINE =
+            (rs, rowNum) -> new CartLine(rs.getLong("id"), rs.getInt("quantity"));
+
+    private static final RowMapper<CartQuantity> CART_QUANTITY =
+            (rs, rowNum) -> new CartQuantity(rs.getString("book_id"), rs.getInt("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CartRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public CartLine addQuantity(String userId, String bookId, int quantity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.queryForObject(ADD_SQL + " RETURNING id, quantity", CART_LINE, userId, bookId,
+                quantity, now, now);
+    }
+
+    @Override
+    public void applyChanges(String userId, Map<String, Integer> additions, Map<String, Integer> quantities,
+                             Collection<String> removals) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!removals.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, removals.stream()
+                    .map(bookId -> new Object[]{userId, bookId}).toList());
+        }
+        batchUpsert(SET_SQL, userId, quantities, now);
+        batchUpsert(ADD_SQL, userId, additions, now);
+    }
+
+    @Override
+    public List<CartQuantity> takeAll(String userId) {
+        return jdbcTemplate.query("DELETE FROM cart WHERE user_id = ? RETURNING book_id, quantity",
+                CART_QUANTITY, userId);
+    }
+
+    private void batchUpsert(String sql, String userId, Map<String, Integer> quantities, Timestamp now) {
+        if (!quantities.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, quantities.entrySet().stream()
+                    .map(e -> new Object[]{userId, e.getKey(), e.getValue(), now, now}).toList());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.book.BookHaven.repository;
+
+import com.book.BookHaven.entity.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.lines WHERE o.user.id = :userId AND o.idempotencyKey = :key")
+    Optional<Order> findWithLinesByIdempotencyKey(@Param("userId") String userId, @Param("key") String key);
+}
@@ -1,7 +1,10 @@
 package com.book.BookHaven.repository;
 
+import com.book.BookHaven.dto.UserIdentity;
 import com.book.BookHaven.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    @Query("SELECT new com.book.BookHaven.dto.UserIdentity(u.id, u.role) FROM User u WHERE u.email = :email")
+    Optional<UserIdentity> findIdentityByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(String id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(String id);
 }
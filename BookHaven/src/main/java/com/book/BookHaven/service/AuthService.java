@@ -21,11 +21,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final UserIdentityService userIdentityService;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService,
+                       TokenVersionService tokenVersionService, UserIdentityService userIdentityService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.tokenVersionService = tokenVersionService;
+        this.userIdentityService = userIdentityService;
     }
 
     public UserResponse register(RegisterRequest request) {
@@ -45,8 +50,9 @@ public class AuthService {
         user.setRole("USER");
 
         userRepository.save(user);
+        userIdentityService.remember(user);
 
-        String token = jwtService.generateToken(user.getEmail(), user.getRole(), false);
+        String token = jwtService.generateToken(user, false);
         return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRole(), token);
     }
 
@@ -62,10 +68,17 @@ public class AuthService {
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             throw new UserNotFoundException("Invalid email or password");
         }
-        String token = jwtService.generateToken(user.getEmail(), user.getRole(), request.getRememberMe());
+        userIdentityService.remember(user);
+        String token = jwtService.generateToken(user, request.getRememberMe());
         return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRole(), token);
     }
 
+    /** Invalidates every token issued to the user, on all devices. */
+    public void logoutAll(String email) {
+        User user = getUserDetails(email);
+        tokenVersionService.revokeTokens(user.getId());
+    }
+
     public boolean validateToken(String token) {
         try {
             return jwtService.extractUsername(token) != null;
@@ -0,0 +1,45 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over the catalog. It records the sort
+ * it was issued for and the sort value and id of the last book returned.
+ */
+record BookCursor(BookSortKey sortKey, boolean ascending, String lastValue, String lastId) {
+
+    private static final String SEPARATOR = "\u001f";
+
+    static BookCursor after(BookResponse book, BookSortKey sortKey, boolean ascending) {
+        return new BookCursor(sortKey, ascending, String.valueOf(sortKey.valueOf(book)), book.getId());
+    }
+
+    Object lastKeyValue() {
+        return sortKey.parseValue(lastValue);
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sortKey.name(), ascending ? "asc" : "desc", lastValue, lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new ValidationException("Invalid cursor");
+            }
+            BookSortKey sortKey = BookSortKey.valueOf(parts[0]);
+            sortKey.parseValue(parts[2]);
+            return new BookCursor(sortKey, "asc".equals(parts[1]), parts[2], parts[3]);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.config.GoogleBooksClientConfig;
+import com.book.BookHaven.dto.BookImportRequest;
+import com.book.BookHaven.dto.BookImportStatus;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.BookImportJob;
+import com.book.BookHaven.entity.BookImportJob.Status;
+import com.book.BookHaven.entity.BookImportProgress;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.exception.ResourceNotFoundException;
+import com.book.BookHaven.exception.ServiceUnavailableException;
+import com.book.BookHaven.exception.ValidationException;
+import com.book.BookHaven.repository.BookImportJobRepository;
+import com.book.BookHaven.repository.BookRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of Google Books volumes into the catalog, by id list or search query.
+ *
+ * <p>Work is done in chunks: volumes of a chunk are fetched in parallel on
+ * {@code catalogImportFetchExecutor} (its pool size is the concurrency limit), parsed as they
+ * stream in, and written with one JDBC batch upsert. Ids already in the catalog are skipped
+ * unless the request asks to overwrite them, so resubmitting an import is cheap.</p>
+ *
+ * <p>Jobs are rows in {@code book_import_jobs}. Each chunk's upsert commits together with the
+ * job's cursor and counters, so a job that failed part-way (for example because the Google
+ * circuit opened), or whose instance was restarted, can be resumed from the chunk where it
+ * stopped, on any instance.</p>
+ */
+@Slf4j
+@Service
+public class BookImportService {
+
+    private static final String ADDED_BY = "System";
+
+    private final GoogleBooksClient googleBooksClient;
+    private final GoogleVolumeMapper volumeMapper;
+    private final BookRepository bookRepository;
+    private final BookImportJobRepository jobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final AsyncTaskExecutor fetchExecutor;
+    private final int batchSize;
+    private final int pageSize;
+    private final int maxVolumes;
+    private final Duration jobRetention;
+    private final Duration staleAfter;
+
+    private final Counter importedBooks;
+    private final Counter skippedBooks;
+    private final Counter failedBooks;
+    private final Timer batchWrite;
+
+    public BookImportService(GoogleBooksClient googleBooksClient,
+                             GoogleVolumeMapper volumeMapper,
+                             BookRepository bookRepository,
+                             BookImportJobRepository jobRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("catalogImportExecutor") ThreadPoolTaskExecutor jobExecutor,
+                             @Qualifier("catalogImportFetchExecutor") AsyncTaskExecutor fetchExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${catalog.import.batch-size:200}") int batchSize,
+                             @Value("${catalog.import.page-size:40}") int pageSize,
+                             @Value("${catalog.import.max-volumes:50000}") int maxVolumes,
+                             @Value("${catalog.import.job-retention:24h}") Duration jobRetention,
+                             @Value("${catalog.import.stale-after:10m}") Duration staleAfter) {
+        this.googleBooksClient = googleBooksClient;
+        this.volumeMapper = volumeMapper;
+        this.bookRepository = bookRepository;
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.jobExecutor = jobExecutor;
+        this.fetchExecutor = fetchExecutor;
+        this.batchSize = batchSize;
+        this.pageSize = pageSize;
+        this.maxVolumes = maxVolumes;
+        this.jobRetention = jobRetention;
+        this.staleAfter = staleAfter;
+        // rate(catalog_import_books_total{result="imported"}) is the import throughput in books/sec
+        this.importedBooks = booksCounter(meterRegistry, "imported");
+        this.skippedBooks = booksCounter(meterRegistry, "skipped");
+        this.failedBooks = booksCounter(meterRegistry, "failed");
+        this.batchWrite = Timer.builder("catalog.import.batch.write")
+                .description("Time to upsert one chunk of imported books")
+                .register(meterRegistry);
+    }
+
+    public BookImportStatus startImport(BookImportRequest request, String startedBy) {
+        boolean hasIds = request.getVolumeIds() != null && !request.getVolumeIds().isEmpty();
+        boolean hasQuery = StringUtils.hasText(request.getQuery());
+        if (hasIds == hasQuery) {
+            throw new ValidationException("Provide either volumeIds or query");
+        }
+
+        BookImportJob job;
+        if (hasIds) {
+            // Dedupe but keep the caller's order, so resuming walks the same sequence
+            List<String> ids = new ArrayList<>(new LinkedHashSet<>(request.getVolumeIds().stream()
+                    .filter(StringUtils::hasText).map(String::trim).toList()));
+            if (ids.size() > maxVolumes) {
+                throw new ValidationException("At most " + maxVolumes + " volumes can be imported per job");
+            }
+            job = new BookImportJob(List.copyOf(ids), null, ids.size(), request.isOverwrite(), startedBy);
+        } else {
+            int total = request.getMaxResults() != null ? request.getMaxResults() : pageSize;
+            if (total > maxVolumes) {
+                throw new ValidationException("At most " + maxVolumes + " volumes can be imported per job");
+            }
+            job = new BookImportJob(null, request.getQuery().trim(), total, request.isOverwrite(), startedBy);
+        }
+
+        jobRepository.deleteFinishedBefore(Instant.now().minus(jobRetention));
+        jobRepository.save(job);
+        submit(job.getId());
+        log.info("Queued book import {} ({} volumes) for {}", job.getId(), job.getTotal(), startedBy);
+        return getStatus(job.getId());
+    }
+
+    public BookImportStatus getStatus(String jobId) {
+        return BookImportStatus.fromProgress(findProgress(jobId));
+    }
+
+    /**
+     * Restarts a failed job from the first chunk it had not finished. A job still marked queued
+     * or running that hasn't moved for {@code catalog.import.stale-after} lost its instance
+     * (a restart, say) and can be resumed too.
+     */
+    public BookImportStatus resume(String jobId) {
+        BookImportProgress job = findProgress(jobId);
+        Instant now = Instant.now();
+        if (jobRepository.requeue(jobId, Status.QUEUED, Status.RUNNING, Status.FAILED,
+                now.minus(staleAfter), now) == 0) {
+            throw new ValidationException("Only failed or stalled imports can be resumed, job is " + job.getStatus());
+        }
+        submit(jobId);
+        log.info("Resuming book import {} at {}/{}", jobId, job.getNextIndex(), job.getTotal());
+        return getStatus(jobId);
+    }
+
+    private BookImportProgress findProgress(String jobId) {
+        return jobRepository.findProgressById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+    }
+
+    private void submit(String jobId) {
+        try {
+            jobExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            jobRepository.finish(jobId, Status.FAILED, "Too many imports running", Instant.now());
+            throw new ServiceUnavailableException("Too many imports running, please retry later");
+        }
+    }
+
+    private void run(String jobId) {
+        if (jobRepository.start(jobId, Status.QUEUED, Status.RUNNING, Instant.now()) == 0) {
+            log.info("Book import {} is already being run elsewhere", jobId);
+            return;
+        }
+        BookImportJob job = jobRepository.findById(jobId).orElseThrow();
+        try {
+            boolean finished = job.isSearch() ? importSearchResults(job) : importVolumes(job);
+            if (!finished) {
+                log.info("Book import {} was taken over by another runner", jobId);
+                return;
+            }
+            jobRepository.finish(jobId, Status.COMPLETED, null, Instant.now());
+            log.info("Book import {} completed: {}", jobId, getStatus(jobId));
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            jobRepository.finish(jobId, Status.FAILED, StringUtils.truncate(String.valueOf(cause.getMessage()), 1000),
+                    Instant.now());
+            log.error("Book import {} failed, it can be resumed", jobId, cause);
+        }
+    }
+
+    /** Returns false if another runner recorded one of this run's chunks first. */
+    private boolean importVolumes(BookImportJob job) {
+        List<String> ids = job.getVolumeIds();
+        for (int from = job.getNextIndex(); from < ids.size(); from += batchSize) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            ChunkCounts counts = new ChunkCounts();
+            List<String> toFetch = withoutExisting(job, chunk, counts);
+
+            List<CompletableFuture<Book>> fetches = toFetch.stream()
+                    .map(id -> CompletableFuture.supplyAsync(() -> fetchVolume(id, counts), fetchExecutor))
+                    .toList();
+            List<Book> books = fetches.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            if (!commit(job, from, from + chunk.size(), books, counts)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns false if another runner recorded one of this run's chunks first. */
+    private boolean importSearchResults(BookImportJob job) {
+        int chunkResults = Math.max(pageSize, batchSize / pageSize * pageSize);
+        for (int from = job.getNextIndex(); from < job.getTotal(); from += chunkResults) {
+            List<CompletableFuture<List<Book>>> pages = new ArrayList<>();
+            for (int start = from; start < Math.min(job.getTotal(), from + chunkResults); start += pageSize) {
+                int startIndex = start;
+                int count = Math.min(pageSize, job.getTotal() - start);
+                pages.add(CompletableFuture.supplyAsync(() -> fetchSearchPage(job.getQuery(), startIndex, count),
+                        fetchExecutor));
+            }
+
+            // The same volume can show up on more than one page
+            Map<String, Book> found = new LinkedHashMap<>();
+            pages.stream().map(CompletableFuture::join).flatMap(List::stream)
+                    .forEach(book -> found.putIfAbsent(book.getId(), book));
+            ChunkCounts counts = new ChunkCounts();
+            if (found.isEmpty()) {
+                return commit(job, from, job.getTotal(), List.of(), counts);
+            }
+
+            Set<String> keep = new LinkedHashSet<>(withoutExisting(job, List.copyOf(found.keySet()), counts));
+            List<Book> books = found.values().stream().filter(book -> keep.contains(book.getId())).toList();
+            if (!commit(job, from, Math.min(job.getTotal(), from + chunkResults), books, counts)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<String> withoutExisting(BookImportJob job, List<String> ids, ChunkCounts counts) {
+        if (job.isOverwrite() || ids.isEmpty()) {
+            return ids;
+        }
+        Set<String> existing = bookRepository.findExistingIds(ids);
+        counts.skipped = existing.size();
+        return existing.isEmpty() ? ids : ids.stream().filter(id -> !existing.contains(id)).toList();
+    }
+
+    /**
+     * Returns null for volumes that can't be imported (unknown ids, unreadable volumes). A shed
+     * call or an outage that outlasted the retries fails the chunk instead, so the job stops
+     * before its cursor moves past volumes that were never fetched and can be resumed later.
+     */
+    private Book fetchVolume(String volumeId, ChunkCounts counts) {
+        try {
+            return googleBooksClient.getVolume(volumeId,
+                    response -> volumeMapper.readVolume(response.getBody(), volumeId, ADDED_BY), "importVolume");
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw e;
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("Skipping unknown volume {}", volumeId);
+        } catch (RuntimeException e) {
+            if (GoogleBooksClientConfig.isOutage(e)) {
+                throw e;
+            }
+            log.warn("Skipping volume {}: {}", volumeId, e.getMessage());
+        }
+        counts.failed.incrementAndGet();
+        return null;
+    }
+
+    private List<Book> fetchSearchPage(String query, int startIndex, int count) {
+        return googleBooksClient.searchVolumes(query, startIndex, count, response -> {
+            List<Book> page = new ArrayList<>(count);
+            volumeMapper.readSearchResults(response.getBody(), ADDED_BY, page::add);
+            return page;
+        });
+    }
+
+    /**
+     * Writes a chunk's books and records the chunk on the job in one transaction. The job row
+     * only takes the chunk while its cursor is still at {@code from}; otherwise the chunk was
+     * already recorded (by an earlier attempt or another runner) and nothing is written or
+     * counted. Returns whether the chunk was recorded.
+     */
+    private boolean commit(BookImportJob job, int from, int to, List<Book> books, ChunkCounts counts) {
+        LocalDateTime now = LocalDateTime.now();
+        books.stream().filter(book -> book.getCreatedAt() == null).forEach(book -> book.setCreatedAt(now));
+        boolean recorded = Boolean.TRUE.equals(writeTransaction.execute(status -> {
+            if (!books.isEmpty()) {
+                batchWrite.record(() -> bookRepository.upsertAll(books));
+            }
+            if (jobRepository.advance(job.getId(), from, to, books.size(), counts.skipped, counts.failed.get(),
+                    Instant.now()) == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+        if (!recorded) {
+            return false;
+        }
+
+        importedBooks.increment(books.size());
+        skippedBooks.increment(counts.skipped);
+        failedBooks.increment(counts.failed.get());
+        if (!books.isEmpty()) {
+            // An upsert over an existing book keeps its price, stock, addedBy and createdAt, so the
+            // catalog views get the rows as stored rather than the freshly mapped volumes. Without
+            // overwrite every book was new, so no cart can hold one yet.
+            List<Book> stored = bookRepository.findAllById(books.stream().map(Book::getId).toList());
+            eventPublisher.publishEvent(job.isOverwrite()
+                    ? CatalogChangedEvent.upserted(stored)
+                    : CatalogChangedEvent.inserted(stored));
+        }
+        return true;
+    }
+
+    /** Skipped and failed volumes of the chunk in flight; they count once the chunk is recorded. */
+    private static final class ChunkCounts {
+        private int skipped;
+        private final AtomicInteger failed = new AtomicInteger();
+    }
+
+    private static Counter booksCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("catalog.import.books")
+                .description("Volumes processed by bulk catalog imports")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
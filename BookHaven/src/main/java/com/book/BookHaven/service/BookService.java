@@ -1,54 +1,171 @@
 package com.book.BookHaven.service;
 
+import com.book.BookHaven.dto.BookPageResponse;
 import com.book.BookHaven.dto.BookRequest;
 import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.dto.BookSummary;
+import com.book.BookHaven.dto.UserIdentity;
 import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
 import com.book.BookHaven.exception.ResourceNotFoundException;
 import com.book.BookHaven.exception.UnauthorizedException;
 import com.book.BookHaven.exception.ValidationException;
 import com.book.BookHaven.repository.BookRepository;
-import com.book.BookHaven.repository.UserRepository;
+import com.book.BookHaven.repository.BookSpecifications;
 import com.book.BookHaven.util.ValidationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
 
     private final BookRepository bookRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
+    private final CatalogIndex catalogIndex;
+    private final HomepageSnapshot homepageSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectWriter exportWriter;
 
-    public BookService(BookRepository bookRepository, UserRepository userRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${catalog.search.full-text.enabled:true}")
+    private boolean fullTextSearchEnabled;
+
+    @Value("${catalog.search.max-results:200}")
+    private int maxSearchResults;
+
+    public BookService(BookRepository bookRepository, UserIdentityService userIdentityService,
+                       CatalogIndex catalogIndex, HomepageSnapshot homepageSnapshot,
+                       ApplicationEventPublisher eventPublisher,
+                       ObjectMapper objectMapper) {
         this.bookRepository = bookRepository;
-        this.userRepository = userRepository;
+        this.userIdentityService = userIdentityService;
+        this.catalogIndex = catalogIndex;
+        this.homepageSnapshot = homepageSnapshot;
+        this.eventPublisher = eventPublisher;
+        this.exportWriter = objectMapper.writerFor(BookResponse.class);
     }
 
     public List<BookResponse> getAllBooks(String search, String genre, String sortBy, String sortOrder) {
-        List<Book> books = bookRepository.findBySearchAndGenre(search, genre);
-        books.sort((a, b) -> {
-            int order = "asc".equalsIgnoreCase(sortOrder) ? 1 : -1;
-            switch (sortBy.toLowerCase()) {
-                case "title":
-                    return a.getTitle().compareToIgnoreCase(b.getTitle()) * order;
-                case "author":
-                    return a.getAuthor().compareToIgnoreCase(b.getAuthor()) * order;
-                case "price":
-                    return a.getPrice().compareTo(b.getPrice()) * order;
-                case "rating":
-                    return Double.compare(a.getRating(), b.getRating()) * order;
-                case "publicationdate":
-                    return a.getPublicationDate().compareTo(b.getPublicationDate()) * order;
-                default:
-                    return a.getTitle().compareToIgnoreCase(b.getTitle()) * order;
+        if (isRelevanceSearch(search, sortBy)) {
+            return searchByRelevance(search, genre, maxSearchResults);
+        }
+        BookSortKey sortKey = BookSortKey.from(sortBy);
+        boolean ascending = "asc".equalsIgnoreCase(sortOrder);
+        if (catalogIndex.isReady()) {
+            return catalogIndex.search(search, genre, sortKey, ascending);
+        }
+        // Index still loading (or disabled): let the database sort and skip the description column
+        return bookRepository.findSummariesBySearchAndGenre(search, genre, sortKey.sort(ascending))
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
+    }
+
+    public BookPageResponse getBookPage(String search, String genre, String sortBy, String sortOrder,
+                                        Integer limit, String cursor) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ValidationException("limit must be between 1 and " + maxPageSize);
+        }
+
+        if (isRelevanceSearch(search, sortBy)) {
+            // Relevance ranks are not a stable key to seek on, so only the top page is served
+            if (cursor != null) {
+                throw new ValidationException("Cursors are not supported for sortBy=relevance");
             }
-        });
-        return books.stream().map(this::toBookResponse).collect(Collectors.toList());
+            return new BookPageResponse(searchByRelevance(search, genre, pageSize), null, false);
+        }
+
+        BookSortKey sortKey = BookSortKey.from(sortBy);
+        boolean ascending = "asc".equalsIgnoreCase(sortOrder);
+        BookCursor after = null;
+        if (cursor != null) {
+            after = BookCursor.decode(cursor);
+            if (after.sortKey() != sortKey || after.ascending() != ascending) {
+                throw new ValidationException("Cursor was issued for a different sort order");
+            }
+        }
+
+        Object afterValue = after != null ? after.lastKeyValue() : null;
+        String afterId = after != null ? after.lastId() : null;
+        // Fetch one extra row to learn whether another page exists. Pages come from wherever
+        // getAllBooks would read the unpaged listing, so both agree on the order of equal-looking keys
+        List<BookResponse> rows = catalogIndex.isReady()
+                ? catalogIndex.page(search, genre, sortKey, ascending, afterValue, afterId, pageSize + 1)
+                : bookRepository.findSummariesAfter(BookSpecifications.matching(search, genre),
+                        sortKey.getProperty(), ascending, afterValue, afterId, pageSize + 1)
+                .stream().map(BookResponse::fromSummary).toList();
+
+        boolean hasMore = rows.size() > pageSize;
+        List<BookResponse> items = rows.stream().limit(pageSize).collect(Collectors.toList());
+        String nextCursor = hasMore ? BookCursor.after(items.get(items.size() - 1), sortKey, ascending).encode() : null;
+        return new BookPageResponse(items, nextCursor, hasMore);
+    }
+
+    private boolean isRelevanceSearch(String search, String sortBy) {
+        return fullTextSearchEnabled && "relevance".equalsIgnoreCase(sortBy) && StringUtils.hasText(search);
+    }
+
+    private List<BookResponse> searchByRelevance(String search, String genre, int limit) {
+        List<String> rankedIds = bookRepository.findIdsByFullTextSearch(search.trim(), genre, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, BookSummary> byId = bookRepository.findSummariesByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(BookSummary::id, Function.identity()));
+        return rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(BookResponse::fromSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes every matching book to {@code out} as newline-delimited JSON while scrolling
+     * through the result set, so the export never holds more than one fetch batch in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportBooks(String search, String genre, String sortBy, String sortOrder, OutputStream out) {
+        BookSortKey sortKey = BookSortKey.from(sortBy);
+        boolean ascending = "asc".equalsIgnoreCase(sortOrder);
+        try (Stream<Book> books = bookRepository.streamBySearchAndGenre(search, genre, sortKey.sort(ascending))) {
+            books.forEach(book -> {
+                try {
+                    out.write(exportWriter.writeValueAsBytes(toBookResponse(book)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(book);
+            });
+        }
     }
 
     public BookResponse getBookById(String id) {
@@ -73,7 +190,9 @@ public class BookService {
                 email,
                 LocalDateTime.now()
         );
+        book.setStock(request.getStock());
         bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(book));
         return toBookResponse(book);
     }
 
@@ -92,7 +211,9 @@ public class BookService {
         book.setPrice(BigDecimal.valueOf(request.getPrice()));
         book.setImage(request.getImage());
         book.setInStock(request.getStock() > 0);
+        book.setStock(request.getStock());
         bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(book));
         return toBookResponse(book);
     }
 
@@ -103,37 +224,47 @@ public class BookService {
             throw new UnauthorizedException("Not authorized to delete this book");
         }
         bookRepository.delete(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(id));
     }
 
     public List<BookResponse> getFeaturedBooks() {
+        if (homepageSnapshot.isReady()) {
+            return homepageSnapshot.featured();
+        }
         return bookRepository.findTop3ByOrderByCreatedAtDesc()
-                .stream().map(this::toBookResponse).collect(Collectors.toList());
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
     }
 
     public List<BookResponse> getTopRatedBooks() {
+        if (homepageSnapshot.isReady()) {
+            return homepageSnapshot.topRated();
+        }
         return bookRepository.findTop3ByOrderByRatingDesc()
-                .stream().map(this::toBookResponse).collect(Collectors.toList());
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
     }
 
     public List<BookResponse> getRelatedBooks(String id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        return bookRepository.findByGenreAndIdNot(book.getGenre(), id)
-                .stream().limit(4).map(this::toBookResponse).collect(Collectors.toList());
+        return bookRepository.findTop4ByGenreAndIdNot(book.getGenre(), id)
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
     }
 
     public List<String> getGenres() {
+        if (homepageSnapshot.isReady()) {
+            return homepageSnapshot.genres();
+        }
         return bookRepository.findDistinctGenres();
     }
 
     public List<BookResponse> getMyBooks(String email) {
         return bookRepository.findByAddedBy(email)
-                .stream().map(this::toBookResponse).collect(Collectors.toList());
+                .stream().map(BookResponse::fromSummary).collect(Collectors.toList());
     }
 
     private boolean isAdmin(String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> "ADMIN".equals(user.getRole()))
+        return userIdentityService.find(email)
+                .map(UserIdentity::isAdmin)
                 .orElse(false);
     }
 
@@ -166,19 +297,6 @@ public class BookService {
     }
 
     private BookResponse toBookResponse(Book book) {
-        return new BookResponse(
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getPublicationDate(),
-                book.getGenre(),
-                book.getDescription(),
-                book.getPrice(),
-                book.getImage(),
-                book.getRating(),
-                book.isInStock(),
-                book.getAddedBy(),
-                book.getCreatedAt()
-        );
+        return BookResponse.fromEntity(book);
     }
 }
\ No newline at end of file
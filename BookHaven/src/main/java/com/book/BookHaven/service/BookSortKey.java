@@ -0,0 +1,88 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Whitelisted sort keys for catalog listings. Unknown values fall back to title,
+ * matching the historical behaviour of {@code GET /api/books}.
+ */
+public enum BookSortKey {
+
+    TITLE("title", Comparator.comparing(BookResponse::getTitle, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    AUTHOR("author", Comparator.comparing(BookResponse::getAuthor, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    PRICE("price", Comparator.comparing(BookResponse::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()))),
+    RATING("rating", Comparator.comparingDouble(BookResponse::getRating)),
+    PUBLICATION_DATE("publicationDate", Comparator.comparing(BookResponse::getPublicationDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final String property;
+    private final Comparator<BookResponse> comparator;
+
+    BookSortKey(String property, Comparator<BookResponse> comparator) {
+        this.property = property;
+        // Ties are broken on id so every ordering is total and stable across calls
+        this.comparator = comparator.thenComparing(BookResponse::getId);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Comparator<BookResponse> comparator(boolean ascending) {
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    /** Database ordering for this key, with id as the unique tie-breaker keyset pagination relies on. */
+    public Sort sort(boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
+    Object valueOf(BookResponse book) {
+        return switch (this) {
+            case TITLE -> book.getTitle();
+            case AUTHOR -> book.getAuthor();
+            case PRICE -> book.getPrice();
+            case RATING -> book.getRating();
+            case PUBLICATION_DATE -> book.getPublicationDate();
+        };
+    }
+
+    /** A stand-in book that sorts exactly where a book with this key value and id does. */
+    BookResponse probe(Object value, String id) {
+        return new BookResponse(id,
+                this == TITLE ? (String) value : null,
+                this == AUTHOR ? (String) value : null,
+                this == PUBLICATION_DATE ? (LocalDate) value : null,
+                null, null,
+                this == PRICE ? (BigDecimal) value : null,
+                null,
+                this == RATING ? (Double) value : 0.0,
+                false, null, null);
+    }
+
+    /** Parses a key value previously written with {@code String.valueOf}. */
+    Object parseValue(String value) {
+        return switch (this) {
+            case TITLE, AUTHOR -> value;
+            case PRICE -> new BigDecimal(value);
+            case RATING -> Double.valueOf(value);
+            case PUBLICATION_DATE -> LocalDate.parse(value);
+        };
+    }
+
+    public static BookSortKey from(String sortBy) {
+        if (sortBy != null) {
+            for (BookSortKey key : values()) {
+                if (key.property.equalsIgnoreCase(sortBy)) {
+                    return key;
+                }
+            }
+        }
+        return TITLE;
+    }
+}
@@ -1,20 +1,34 @@
 package com.book.BookHaven.service;
 
+import com.book.BookHaven.dto.CartBatchRequest;
 import com.book.BookHaven.dto.CartItemRequest;
 import com.book.BookHaven.dto.CartItemResponse;
+import com.book.BookHaven.dto.CartOperation;
+import com.book.BookHaven.dto.UserIdentity;
 import com.book.BookHaven.entity.Book;
 import com.book.BookHaven.entity.Cart;
-import com.book.BookHaven.entity.User;
+import com.book.BookHaven.event.CatalogChangedEvent;
 import com.book.BookHaven.exception.ResourceNotFoundException;
+import com.book.BookHaven.exception.ServiceUnavailableException;
 import com.book.BookHaven.exception.ValidationException;
 import com.book.BookHaven.repository.BookRepository;
 import com.book.BookHaven.repository.CartRepository;
-import com.book.BookHaven.repository.UserRepository;
+import com.book.BookHaven.repository.CartRepositoryCustom.CartLine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 
@@ -22,8 +36,19 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,32 +60,61 @@ public class CartService {
     private final GoogleBookService googleBookService;
     private final CartRepository cartRepository;
     private final BookRepository bookRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final AsyncTaskExecutor bookImportExecutor;
+    private final Duration bookImportTimeout;
+    private final Timer addToCartResolveTimer;
+    private final Timer addToCartWriteTimer;
 
     public CartService(GoogleBookService googleBookService,
                        CartRepository cartRepository,
                        BookRepository bookRepository,
-                       UserRepository userRepository) {
+                       UserIdentityService userIdentityService,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("bookImportExecutor") AsyncTaskExecutor bookImportExecutor,
+                       MeterRegistry meterRegistry,
+                       @Value("${cart.book-import.timeout:15s}") Duration bookImportTimeout) {
         this.googleBookService = googleBookService;
         this.cartRepository = cartRepository;
         this.bookRepository = bookRepository;
-        this.userRepository = userRepository;
+        this.userIdentityService = userIdentityService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.bookImportExecutor = bookImportExecutor;
+        this.bookImportTimeout = bookImportTimeout;
+        // Compare with hikaricp.connections.usage: only the write phase should hold a connection
+        this.addToCartResolveTimer = Timer.builder("cart.add.duration")
+                .description("Add-to-cart time per phase")
+                .tag("phase", "resolve")
+                .register(meterRegistry);
+        this.addToCartWriteTimer = Timer.builder("cart.add.duration")
+                .description("Add-to-cart time per phase")
+                .tag("phase", "write")
+                .register(meterRegistry);
     }
 
     @Cacheable(value = "userCart", key = "#email")
     public List<CartItemResponse> getCart(@NotBlank @Email String email) {
         log.debug("Fetching cart for user: {}", email);
 
-        User user = findUserByEmail(email);
-        List<Cart> cartItems = cartRepository.findByUserIdWithBooks(user.getId());
-
-        return cartItems.parallelStream()
-                .map(this::mapToCartItemResponse)
-                .collect(Collectors.toList());
+        List<CartItemResponse> items = cartRepository.findItemResponsesByUserEmail(email);
+        // Only an empty cart needs telling apart from an unknown user
+        if (items.isEmpty() && userIdentityService.find(email).isEmpty()) {
+            throw new ResourceNotFoundException(String.format("User not found with email: %s", email));
+        }
+        return items;
     }
 
-    @Transactional
-    @CacheEvict(value = "userCart", key = "#email")
+    /**
+     * Resolves the book first, importing it from Google Books on {@code bookImportExecutor} if
+     * needed, with no transaction open. Only the cart write itself runs in a (short) transaction,
+     * so no connection is held across the Google round trip.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
     public CartItemResponse addToCart(CartItemRequest request, String email) {
 
         String bookId = request.getBookId();
@@ -71,47 +125,99 @@ public class CartService {
         // Input validation
         validateBookId(bookId);
 
-        User user = findUserByEmail(email);
+        Book book = addToCartResolveTimer.record(() -> resolveBook(bookId));
 
-        // Check if item already exists in cart
-        Optional<Cart> existingCart = cartRepository.findByUserIdAndBookId(user.getId(), bookId);
-        if (existingCart.isPresent()) {
-            Cart cart = existingCart.get();
-            cart.incrementQuantity(quantity);
-            Cart updated = cartRepository.save(cart);
-            return CartItemResponse.fromEntity(updated);
-        }
+        validateBookAvailability(book, quantity);
 
+        CartItemResponse response = addToCartWriteTimer.record(() -> writeTransaction.execute(status -> {
+            String userId = findUserId(email);
+            // One upsert instead of find-then-save: concurrent adds of the same book just add up
+            CartLine line = cartRepository.addQuantity(userId, bookId, quantity);
+            return mapToCartItemResponse(line.id(), line.quantity(), book);
+        }));
+        log.info("Successfully added book {} to cart for user: {}", bookId, email);
 
-        Book book = getOrFetchBook(bookId);
+        return response;
+    }
 
 
-        validateBookAvailability(book, quantity);
+    /**
+     * Applies {@code request.operations} in order and returns the resulting cart. Operations are
+     * first folded into one net change per book, so the write is a handful of JDBC batches in a
+     * single short transaction; books missing locally are imported up front, concurrently and
+     * with no transaction open, as in {@link #addToCart}. Unlike the single-item endpoints,
+     * UPDATE creates a missing line and REMOVE of a missing line is a no-op, so merging a guest
+     * cart can be replayed safely.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
+    public List<CartItemResponse> applyBatch(CartBatchRequest request, String email) {
+        Map<String, Integer> additions = new LinkedHashMap<>();
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        Set<String> removals = new LinkedHashSet<>();
+        for (CartOperation operation : request.getOperations()) {
+            String bookId = operation.getBookId();
+            validateBookId(bookId);
+            switch (operation.getAction()) {
+                case ADD -> {
+                    int quantity = operation.getQuantity() != null ? operation.getQuantity() : 1;
+                    if (quantity < 1) {
+                        throw new ValidationException("Quantity to add must be at least 1 for book: " + bookId);
+                    }
+                    if (removals.remove(bookId)) {
+                        quantities.put(bookId, quantity);
+                    } else if (quantities.containsKey(bookId)) {
+                        quantities.merge(bookId, quantity, Integer::sum);
+                    } else {
+                        additions.merge(bookId, quantity, Integer::sum);
+                    }
+                }
+                case UPDATE -> {
+                    if (operation.getQuantity() == null) {
+                        throw new ValidationException("Quantity is required to update book: " + bookId);
+                    }
+                    additions.remove(bookId);
+                    if (operation.getQuantity() == 0) {
+                        quantities.remove(bookId);
+                        removals.add(bookId);
+                    } else {
+                        removals.remove(bookId);
+                        quantities.put(bookId, operation.getQuantity());
+                    }
+                }
+                case REMOVE -> {
+                    additions.remove(bookId);
+                    quantities.remove(bookId);
+                    removals.add(bookId);
+                }
+            }
+        }
 
-        // Create new cart item
-        Cart cart = Cart.builder()
-                .user(user)
-                .book(book)
-                .quantity(quantity)
-                .build();
+        log.info("Applying {} cart operations for user: {} ({} added, {} set, {} removed)",
+                request.getOperations().size(), email, additions.size(), quantities.size(), removals.size());
 
-        Cart savedCart = cartRepository.save(cart);
-        log.info("Successfully added book {} to cart for user: {}", bookId, email);
+        Set<String> bookIds = new LinkedHashSet<>(additions.keySet());
+        bookIds.addAll(quantities.keySet());
+        for (Book book : resolveBooks(bookIds)) {
+            validateBookAvailability(book, additions.getOrDefault(book.getId(), quantities.get(book.getId())));
+        }
 
-        return CartItemResponse.fromEntity(savedCart);
+        return writeTransaction.execute(status -> {
+            cartRepository.applyChanges(findUserId(email), additions, quantities, removals);
+            return cartRepository.findItemResponsesByUserEmail(email);
+        });
     }
 
-
     @Transactional
-    @CacheEvict(value = "userCart", key = "#email")
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
     public CartItemResponse updateCartItem(@NotBlank String bookId,
                                            @Min(0) Integer quantity,
                                            @NotBlank @Email String email) {
 
         log.info("Updating cart item {} with quantity {} for user: {}", bookId, quantity, email);
 
-        User user = findUserByEmail(email);
-        Cart cart = cartRepository.findByUserIdAndBookId(user.getId(), bookId)
+        String userId = findUserId(email);
+        Cart cart = cartRepository.findByUserIdAndBookId(userId, bookId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Cart item not found for book id: %s and user: %s", bookId, email)));
 
@@ -132,7 +238,7 @@ public class CartService {
     }
 
     @Transactional
-    @CacheEvict(value = "userCart", key = "#email")
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
     public void removeFromCart(@NotBlank String bookIdStr,
                                @NotBlank @Email String email) {
 
@@ -145,66 +251,36 @@ public class CartService {
 
         log.info("Removing book {} from cart for user: {}", bookId, email);
 
-        User user = findUserByEmail(email);
-
-
-
-        Cart cart = cartRepository.findByUserIdAndBookId(user.getId(), bookId.toString())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Cart item not found for book id: %s", bookId)));
-
-        cartRepository.delete(cart);
+        String userId = findUserId(email);
+        if (cartRepository.deleteByUserIdAndBookId(userId, bookId.toString()) == 0) {
+            throw new ResourceNotFoundException(String.format("Cart item not found for book id: %s", bookId));
+        }
         log.info("Successfully removed book {} from cart for user: {}", bookId, email);
     }
 
 
 
     @Transactional
-    @CacheEvict(value = "userCart", key = "#email")
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
     public void clearCart(@NotBlank @Email String email) {
         log.info("Clearing cart for user: {}", email);
 
-        User user = findUserByEmail(email);
-        int deletedCount = cartRepository.deleteByUserId(user.getId());
+        String userId = findUserId(email);
+        int deletedCount = cartRepository.deleteByUserId(userId);
 
         log.info("Cleared {} items from cart for user: {}", deletedCount, email);
     }
 
-    @Transactional
-    @CacheEvict(value = "userCart", key = "#email")
-    public String checkout(@NotBlank @Email String email) {
-        log.info("Processing checkout for user: {}", email);
-
-        User user = findUserByEmail(email);
-        List<Cart> cartItems = cartRepository.findByUserIdWithBooks(user.getId());
-
-        if (cartItems.isEmpty()) {
-            throw new ValidationException("Cannot checkout with empty cart");
-        }
-
-        // Validate all items are still available
-        BigDecimal totalAmount = validateAndCalculateTotal(cartItems);
-
-        // Process checkout logic here (payment, order creation, etc.)
-        // This should ideally be moved to a separate OrderService
-
-        // Clear cart after successful checkout
-        cartRepository.deleteByUserId(user.getId());
-
-        log.info("Checkout successful for user: {} with total amount: {}", email, totalAmount);
-        return String.format("Checkout successful. Total amount: $%.2f", totalAmount);
-    }
-
     @Cacheable(value = "cartCount", key = "#email")
     public int getCartItemCount(@NotBlank @Email String email) {
-        User user = findUserByEmail(email);
-        return cartRepository.countByUserId(user.getId());
+        String userId = findUserId(email);
+        return cartRepository.countByUserId(userId);
     }
 
     @Cacheable(value = "cartTotal", key = "#email")
     public BigDecimal getCartTotal(@NotBlank @Email String email) {
-        User user = findUserByEmail(email);
-        List<Cart> cartItems = cartRepository.findByUserIdWithBooks(user.getId());
+        String userId = findUserId(email);
+        List<Cart> cartItems = cartRepository.findByUserIdWithBooks(userId);
 
         return cartItems.stream()
                 .map(cart -> cart.getBook().getPrice()
@@ -213,19 +289,80 @@ public class CartService {
 
     }
 
+    /**
+     * Cached carts and totals embed book titles and prices, so a catalog write that changes or
+     * removes books (admin edits, overwriting imports, checkouts selling out a book) can leave
+     * them stale. Which carts hold the changed books isn't known here, so every entry goes.
+     * Books that were only just inserted can't be in any cart, so those writes keep the caches.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, allEntries = true,
+            condition = "!#event.insertedOnly()")
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Catalog changed, cleared cached carts");
+    }
+
     // Private helper methods
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+    private String findUserId(String email) {
+        return userIdentityService.find(email)
+                .map(UserIdentity::userId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("User not found with email: %s", email)));
     }
 
-    private Book getOrFetchBook(String bookId) {
-        return bookRepository.findById(bookId)
-                .orElseGet(() -> {
-                    log.info("Book not found in database, fetching from Google Books API: {}", bookId);
-                    return googleBookService.fetchBookFromGoogle(bookId);
-                });
+    private Book resolveBook(String bookId) {
+        // Own read-only transaction: a bare repository call here would bind an EntityManager to
+        // this NOT_SUPPORTED scope and keep its connection until addToCart returns
+        Optional<Book> existing = readTransaction.execute(status -> bookRepository.findById(bookId));
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        return awaitImport(bookId, submitImport(bookId));
+    }
+
+    /** Loads the books in one query and imports the missing ones from Google Books concurrently. */
+    private List<Book> resolveBooks(Collection<String> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        List<Book> books = new ArrayList<>(readTransaction.execute(status -> bookRepository.findAllById(bookIds)));
+        Set<String> found = books.stream().map(Book::getId).collect(Collectors.toSet());
+        Map<String, Future<Book>> imports = new LinkedHashMap<>();
+        for (String bookId : bookIds) {
+            if (!found.contains(bookId)) {
+                imports.put(bookId, submitImport(bookId));
+            }
+        }
+        imports.forEach((bookId, fetch) -> books.add(awaitImport(bookId, fetch)));
+        return books;
+    }
+
+    private Future<Book> submitImport(String bookId) {
+        log.info("Book not found in database, fetching from Google Books API: {}", bookId);
+        try {
+            return bookImportExecutor.submit(() -> googleBookService.fetchBookFromGoogle(bookId));
+        } catch (TaskRejectedException e) {
+            throw new ServiceUnavailableException("Too many book imports in progress, please retry shortly");
+        }
+    }
+
+    private Book awaitImport(String bookId, Future<Book> fetch) {
+        try {
+            return fetch.get(bookImportTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Left running: other callers may be waiting on the same import, and it lands for the next try
+            throw new ServiceUnavailableException("Timed out fetching book " + bookId + " from Google Books");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Book import failed for " + bookId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while fetching book " + bookId);
+        }
     }
 
     private void validateBookId(String bookId) {
@@ -245,33 +382,20 @@ public class CartService {
         }
     }
 
-    private BigDecimal validateAndCalculateTotal(List<Cart> cartItems) {
-        BigDecimal total = BigDecimal.ZERO;
-
-        for (Cart cart : cartItems) {
-            Book book = cart.getBook();
-            validateBookAvailability(book, cart.getQuantity());
-
-            BigDecimal itemTotal = book.getPrice()
-                    .multiply(BigDecimal.valueOf(cart.getQuantity()));
-            total = total.add(itemTotal);
-        }
-
-        return total;
+    private CartItemResponse mapToCartItemResponse(Cart cart) {
+        return mapToCartItemResponse(cart.getId(), cart.getQuantity(), cart.getBook());
     }
 
-
-    private CartItemResponse mapToCartItemResponse(Cart cart) {
-        Book book = cart.getBook();
+    private CartItemResponse mapToCartItemResponse(long cartId, int quantity, Book book) {
         return new CartItemResponse(
-                String.valueOf(cart.getId()),
+                String.valueOf(cartId),
                 book.getId(),
                 book.getTitle(),
                 book.getAuthor(),
                 book.getGenre(),
                 book.getImage(),
                 book.getPrice(),
-                cart.getQuantity()
+                quantity
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,344 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-process index over the books table that answers catalog search, genre filtering
+ * and sorting without touching the database.
+ *
+ * <p>Search keeps the semantics of {@code BookRepository.findSummariesBySearchAndGenre}: the whole
+ * search string must appear, case-insensitively, in the title, author or genre. The token
+ * index only narrows the candidates; every candidate is verified against that rule.</p>
+ */
+@Slf4j
+@Component
+public class CatalogIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Below this share of the catalog, sorting the candidates beats walking a presorted ordering
+    private static final int SORT_CANDIDATES_RATIO = 8;
+
+    private final BookRepository bookRepository;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeMap<String, Set<String>> tokens = new TreeMap<>();
+    private final Map<String, Set<String>> genres = new HashMap<>();
+    private final Map<BookSortKey, NavigableSet<Entry>> orderings = new EnumMap<>(BookSortKey.class);
+
+    private volatile boolean ready;
+    private List<CatalogChangedEvent> pendingDuringRebuild;
+
+    public CatalogIndex(BookRepository bookRepository,
+                        @Value("${catalog.index.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+        for (BookSortKey key : BookSortKey.values()) {
+            Comparator<BookResponse> comparator = key.comparator(true);
+            orderings.put(key, new TreeSet<>((a, b) -> comparator.compare(a.response, b.response)));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Catalog index disabled, catalog queries will use the database");
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        List<BookResponse> books;
+        try {
+            books = bookRepository.findSummariesBySearchAndGenre(null, null, Sort.unsorted())
+                    .stream().map(BookResponse::fromSummary).toList();
+        } catch (RuntimeException e) {
+            log.error("Failed to load catalog index, catalog queries will use the database", e);
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            books.forEach(this::add);
+            // Changes committed while the table was being read may be newer than what we loaded
+            pendingDuringRebuild.forEach(this::apply);
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog index loaded {} books in {} ms", books.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ahead of CatalogVersion, which must only publish a new ETag once the index has the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the books matching {@code search} and {@code genre} in the requested order.
+     * Callers must check {@link #isReady()} first.
+     */
+    public List<BookResponse> search(String search, String genre, BookSortKey sortKey, boolean ascending) {
+        return page(search, genre, sortKey, ascending, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keyset page over the same ordering {@link #search} uses: up to {@code limit} matching books
+     * that sort strictly after ({@code afterValue}, {@code afterId}). Pass a null {@code afterId}
+     * for the first page. Callers must check {@link #isReady()} first.
+     */
+    public List<BookResponse> page(String search, String genre, BookSortKey sortKey, boolean ascending,
+                                   Object afterValue, String afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            String query = StringUtils.hasText(search) ? search.toLowerCase(Locale.ROOT) : null;
+
+            Set<String> candidates = query != null ? tokenCandidates(query) : null;
+            if (genre != null) {
+                Set<String> genreIds = genres.getOrDefault(genre, Set.of());
+                candidates = candidates == null ? genreIds : intersect(candidates, genreIds);
+            }
+
+            Comparator<BookResponse> order = sortKey.comparator(ascending);
+            BookResponse after = afterId != null ? sortKey.probe(afterValue, afterId) : null;
+            List<BookResponse> result = new ArrayList<>();
+            if (candidates != null && candidates.size() * SORT_CANDIDATES_RATIO < entries.size()) {
+                for (String id : candidates) {
+                    Entry entry = entries.get(id);
+                    if (entry.matches(query) && (after == null || order.compare(entry.response, after) > 0)) {
+                        result.add(entry.response);
+                    }
+                }
+                result.sort(order);
+                return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+            }
+
+            NavigableSet<Entry> ordering = ascending ? orderings.get(sortKey) : orderings.get(sortKey).descendingSet();
+            if (after != null) {
+                ordering = ordering.tailSet(new Entry(after), false);
+            }
+            Iterator<Entry> it = ordering.iterator();
+            while (it.hasNext() && result.size() < limit) {
+                Entry entry = it.next();
+                if ((candidates == null || candidates.contains(entry.response.getId())) && entry.matches(query)) {
+                    result.add(entry.response);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(CatalogChangedEvent event) {
+        event.removedIds().forEach(this::remove);
+        for (Book book : event.upserted()) {
+            BookResponse response = BookResponse.fromEntity(book);
+            // Listings never ship the description, so don't keep it in memory either
+            response.setDescription(null);
+            add(response);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        tokens.clear();
+        genres.clear();
+        orderings.values().forEach(Set::clear);
+    }
+
+    private void add(BookResponse book) {
+        remove(book.getId());
+        Entry entry = new Entry(book);
+        entries.put(entry.response.getId(), entry);
+        for (String token : entry.tokens) {
+            tokens.computeIfAbsent(token, t -> new HashSet<>()).add(entry.response.getId());
+        }
+        if (entry.response.getGenre() != null) {
+            genres.computeIfAbsent(entry.response.getGenre(), g -> new HashSet<>()).add(entry.response.getId());
+        }
+        orderings.values().forEach(ordering -> ordering.add(entry));
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens) {
+            removePosting(tokens, token, id);
+        }
+        if (entry.response.getGenre() != null) {
+            removePosting(genres, entry.response.getGenre(), id);
+        }
+        orderings.values().forEach(ordering -> ordering.remove(entry));
+    }
+
+    /**
+     * Narrows the catalog to books that can contain {@code query}. Inner query tokens must be
+     * whole tokens of the matching field and the last one must prefix one, so those are looked
+     * up directly; only a single-token query needs a substring scan of the token dictionary.
+     */
+    private Set<String> tokenCandidates(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return null;
+        }
+        if (queryTokens.size() == 1) {
+            return union(tokens, key -> key.contains(queryTokens.get(0)));
+        }
+
+        String last = queryTokens.get(queryTokens.size() - 1);
+        Set<String> candidates = union(tokens.subMap(last, true, last + Character.MAX_VALUE, true).values());
+        for (String token : queryTokens.subList(1, queryTokens.size() - 1)) {
+            candidates = intersect(candidates, tokens.getOrDefault(token, Set.of()));
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private static Set<String> union(Map<String, Set<String>> postings, Predicate<String> keyFilter) {
+        Set<String> result = new HashSet<>();
+        postings.forEach((key, ids) -> {
+            if (keyFilter.test(key)) {
+                result.addAll(ids);
+            }
+        });
+        return result;
+    }
+
+    private static Set<String> union(Collection<Set<String>> postings) {
+        Set<String> result = new HashSet<>();
+        postings.forEach(result::addAll);
+        return result;
+    }
+
+    private static Set<String> intersect(Set<String> a, Set<String> b) {
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        Set<String> result = new HashSet<>();
+        for (String id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static void removePosting(Map<String, Set<String>> postings, String key, String id) {
+        Set<String> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static final class Entry {
+
+        private final BookResponse response;
+        private final String title;
+        private final String author;
+        private final String genre;
+        private final Set<String> tokens = new HashSet<>();
+
+        private Entry(BookResponse response) {
+            this.response = response;
+            this.title = lower(response.getTitle());
+            this.author = lower(response.getAuthor());
+            this.genre = lower(response.getGenre());
+            for (String field : new String[]{title, author, genre}) {
+                if (field != null) {
+                    tokens.addAll(tokenize(field));
+                }
+            }
+        }
+
+        private boolean matches(String query) {
+            return query == null
+                    || (title != null && title.contains(query))
+                    || (author != null && author.contains(query))
+                    || (genre != null && genre.contains(query));
+        }
+    }
+}
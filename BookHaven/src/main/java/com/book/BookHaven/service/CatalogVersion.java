@@ -0,0 +1,34 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.event.CatalogChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the catalog as served by this instance, bumped after every committed
+ * {@link CatalogChangedEvent}. The random epoch keeps tags from different instances or restarts
+ * from ever matching, since their counters say nothing about each other's data.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    /** Strong entity tag for every catalog representation at the current version. */
+    public String etag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+
+    // Runs after CatalogIndex has applied the same change, so a new tag never labels old data
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -1,123 +1,135 @@
 package com.book.BookHaven.service;
 
 import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.exception.ResourceNotFoundException;
+import com.book.BookHaven.exception.ServiceUnavailableException;
 import com.book.BookHaven.repository.BookRepository;
-import org.json.JSONObject;
-import org.springframework.http.ResponseEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class GoogleBookService {
 
     private final BookRepository bookRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private static final String GOOGLE_BOOKS_API = "https://www.googleapis.com/books/v1/volumes/";
-
-    public GoogleBookService(BookRepository bookRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final GoogleBooksClient googleBooksClient;
+    private final GoogleVolumeMapper volumeMapper;
+    private final TransactionTemplate requiresNewTransaction;
+    private final ConcurrentMap<String, CompletableFuture<Book>> inFlightFetches = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> missingVolumes;
+
+    public GoogleBookService(BookRepository bookRepository, ApplicationEventPublisher eventPublisher,
+                             GoogleBooksClient googleBooksClient, GoogleVolumeMapper volumeMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${google.books.not-found-ttl:10m}") Duration notFoundTtl) {
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.googleBooksClient = googleBooksClient;
+        this.volumeMapper = volumeMapper;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.missingVolumes = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(notFoundTtl)
+                .build();
     }
 
+    /**
+     * Returns the volume, inserting it into {@code books} if needed. Concurrent calls for the
+     * same id share one outbound fetch and one insert, and ids Google reported missing are
+     * answered from a short-lived negative cache. The insert commits before this returns, so
+     * callers should re-read the book in their own transaction.
+     */
     public Book fetchBookFromGoogle(String bookId) {
-        String url = GOOGLE_BOOKS_API + bookId;
+        if (missingVolumes.getIfPresent(bookId) != null) {
+            throw new ResourceNotFoundException("Book not found: " + bookId);
+        }
 
+        CompletableFuture<Book> fetch = new CompletableFuture<>();
+        CompletableFuture<Book> inFlight = inFlightFetches.putIfAbsent(bookId, fetch);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            JSONObject json = new JSONObject(response.getBody());
-
-            JSONObject volumeInfo = json.getJSONObject("volumeInfo");
-
-            String title = volumeInfo.optString("title", "Unknown Title");
-            String author = volumeInfo.optJSONArray("authors") != null
-                    ? volumeInfo.getJSONArray("authors").optString(0, "Unknown Author")
-                    : "Unknown Author";
-            String genre = volumeInfo.optJSONArray("categories") != null
-                    ? volumeInfo.getJSONArray("categories").optString(0, "General")
-                    : "General";
-            String description = volumeInfo.optString("description", "No description available");
-            String thumbnail = volumeInfo.optJSONObject("imageLinks") != null
-                    ? volumeInfo.getJSONObject("imageLinks").optString("thumbnail", "https://via.placeholder.com/150")
-                    : "https://via.placeholder.com/150";
-            double rating = volumeInfo.has("averageRating")
-                    ? volumeInfo.optDouble("averageRating", 3.5)
-                    : 3.5;
-
-            // Handle publication date
-            LocalDate publicationDate = parsePublicationDate(volumeInfo.optString("publishedDate", null));
-
-            Book book = new Book();
-            book.setId(bookId);
-            book.setTitle(title);
-            book.setAuthor(author);
-            book.setGenre(genre);
-            book.setDescription(description);
-            book.setImage(thumbnail);
-            book.setRating(rating);
-            book.setPublicationDate(publicationDate);
-
-            book.setPrice(BigDecimal.valueOf(Math.random() * 1000 + 100));
-            book.setInStock(true);
-            book.setAddedBy("System");
-
-            return bookRepository.save(book);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch book from Google API: " + e.getMessage());
+            Book book = fetchAndStore(bookId);
+            fetch.complete(book);
+            return book;
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightFetches.remove(bookId, fetch);
         }
     }
 
-    public Book fetchAndSaveBook(String googleBookId, String addedBy) {
-        String url = GOOGLE_BOOKS_API + googleBookId;
-        Map response = restTemplate.getForObject(url, Map.class);
-
-        if (response == null || !response.containsKey("volumeInfo")) {
-            throw new RuntimeException("Google Books API returned no data for id: " + googleBookId);
+    private Book fetchAndStore(String bookId) {
+        Book book;
+        try {
+            book = googleBooksClient.getVolume(bookId,
+                    response -> volumeMapper.readVolume(response.getBody(), bookId, "System"), "fetchBookFromGoogle");
+        } catch (HttpClientErrorException.NotFound e) {
+            missingVolumes.put(bookId, Boolean.TRUE);
+            throw new ResourceNotFoundException("Book not found: " + bookId);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new ServiceUnavailableException("Google Books is temporarily unavailable, please retry shortly");
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to fetch book from Google API: " + e.getMessage(), e);
         }
-
-        Map volumeInfo = (Map) response.get("volumeInfo");
-
-        String publishedDateStr = (String) volumeInfo.get("publishedDate");
-        LocalDate publicationDate = parsePublicationDate(publishedDateStr);
-
-        Book book = new Book();
-        book.setId(googleBookId);
-        book.setTitle((String) volumeInfo.getOrDefault("title", "Untitled"));
-        book.setAuthor(((java.util.List<String>) volumeInfo.getOrDefault("authors", java.util.List.of("Unknown Author"))).get(0));
-        book.setGenre(((java.util.List<String>) volumeInfo.getOrDefault("categories", java.util.List.of("General"))).get(0));
-        book.setDescription((String) volumeInfo.getOrDefault("description", "No description available"));
-        book.setPrice(BigDecimal.valueOf(Math.random() * 1000 + 100));
-        book.setImage(((Map<String, String>) volumeInfo.getOrDefault("imageLinks", Map.of()))
-                .getOrDefault("thumbnail", "https://via.placeholder.com/150"));
-        book.setInStock(true);
-        book.setRating(((Number) volumeInfo.getOrDefault("averageRating", 3.5)).doubleValue());
-        book.setAddedBy(addedBy != null ? addedBy : "System");
-        book.setPublicationDate(publicationDate);
-
-        return bookRepository.save(book);
+        return storeIfAbsent(book);
     }
 
-
-    private LocalDate parsePublicationDate(String publishedDateStr) {
-        if (publishedDateStr == null || publishedDateStr.isBlank()) {
-            return LocalDate.now();
+    /**
+     * Inserts the book in its own short transaction unless it is already there. A duplicate
+     * key means another instance stored the same volume first, so its row is used instead.
+     */
+    private Book storeIfAbsent(Book book) {
+        try {
+            return requiresNewTransaction.execute(status ->
+                    bookRepository.findById(book.getId()).orElseGet(() -> save(book)));
+        } catch (DataIntegrityViolationException e) {
+            return bookRepository.findById(book.getId()).orElseThrow(() -> e);
         }
+    }
+
+    private static Book await(CompletableFuture<Book> fetch) {
         try {
-            if (publishedDateStr.matches("\\d{4}")) {
-                return LocalDate.of(Integer.parseInt(publishedDateStr), 1, 1);
-            } else if (publishedDateStr.matches("\\d{4}-\\d{2}")) {
-                YearMonth ym = YearMonth.parse(publishedDateStr, DateTimeFormatter.ofPattern("yyyy-MM"));
-                return ym.atDay(1);
-            } else {
-                return LocalDate.parse(publishedDateStr);
+            return fetch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-        } catch (Exception e) {
-            return LocalDate.now();
+            throw e;
         }
     }
+
+    public Book fetchAndSaveBook(String googleBookId, String addedBy) {
+        Book book = googleBooksClient.getVolume(googleBookId,
+                response -> volumeMapper.readVolume(response.getBody(), googleBookId,
+                        addedBy != null ? addedBy : "System"),
+                "fetchAndSaveBook");
+        return save(book);
+    }
+
+    private Book save(Book book) {
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(saved));
+        return saved;
+    }
 }
@@ -0,0 +1,100 @@
+package com.book.BookHaven.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Calls the Google Books volumes API. Each call runs inside the bulkhead (caps concurrent
+ * outbound requests), the circuit breaker (fails fast while Google is down) and the retry
+ * (backs off with jitter on transient failures), in that order from the inside out.
+ */
+@Component
+public class GoogleBooksClient {
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final MeterRegistry meterRegistry;
+    private final String apiUrl;
+    private final String searchUrl;
+
+    public GoogleBooksClient(@Qualifier("googleBooksRestTemplate") RestTemplate restTemplate,
+                             CircuitBreaker googleBooksCircuitBreaker,
+                             Bulkhead googleBooksBulkhead,
+                             Retry googleBooksRetry,
+                             MeterRegistry meterRegistry,
+                             @Value("${google.books.api-url:https://www.googleapis.com/books/v1/volumes/}") String apiUrl) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = googleBooksCircuitBreaker;
+        this.bulkhead = googleBooksBulkhead;
+        this.retry = googleBooksRetry;
+        this.meterRegistry = meterRegistry;
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl : apiUrl + "/";
+        this.searchUrl = this.apiUrl.substring(0, this.apiUrl.length() - 1)
+                + "?q={q}&startIndex={startIndex}&maxResults={maxResults}";
+    }
+
+    /**
+     * Fetches a volume, handing the response body to {@code extractor} unbuffered. Throws
+     * {@link HttpClientErrorException.NotFound} for unknown ids and
+     * {@link CallNotPermittedException} / {@link BulkheadFullException} when the call is shed.
+     */
+    public <T> T getVolume(String volumeId, ResponseExtractor<T> extractor, String operation) {
+        return call(operation, () -> restTemplate.execute(apiUrl + "{id}", HttpMethod.GET, null, extractor, volumeId));
+    }
+
+    /** Runs one page of a volumes search, handing the response body to {@code extractor} unbuffered. */
+    public <T> T searchVolumes(String query, int startIndex, int maxResults, ResponseExtractor<T> extractor) {
+        return call("searchVolumes", () -> restTemplate.execute(searchUrl, HttpMethod.GET, null, extractor,
+                query, startIndex, maxResults));
+    }
+
+    private <T> T call(String operation, Supplier<T> call) {
+        Supplier<T> resilient = Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker,
+                        Bulkhead.decorateSupplier(bulkhead, call)));
+        return timed(operation, resilient);
+    }
+
+    /**
+     * Records latency and outcome of a Google Books call as {@code google.books.requests}
+     * (a timer, so it also yields success/error counts per outcome).
+     */
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (HttpClientErrorException.NotFound e) {
+            outcome = "not_found";
+            throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("google.books.requests")
+                    .description("Calls to the Google Books volumes API")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.entity.Book;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Maps Google Books volume JSON to {@link Book}s with the Jackson streaming parser, straight
+ * from the response stream: only the handful of {@code volumeInfo} fields a book needs are
+ * read, and no tree of the (mostly unused) document is ever built.
+ */
+@Component
+public class GoogleVolumeMapper {
+
+    private static final String DEFAULT_IMAGE = "https://via.placeholder.com/150";
+
+    private final JsonFactory jsonFactory;
+
+    public GoogleVolumeMapper(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Reads a single-volume response; the book gets {@code bookId} as its id. Only the
+     * {@code volumeInfo} fields a book needs are materialised, everything else is skipped.
+     * Malformed JSON, or JSON that isn't a volume object, is reported as
+     * {@link IllegalArgumentException} so callers don't mistake it for (retryable) I/O trouble.
+     */
+    public Book readVolume(InputStream body, String bookId, String addedBy) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object for volume " + bookId);
+            }
+            Book book = readVolumeObject(parser, addedBy);
+            if (book == null) {
+                throw new IllegalArgumentException("Google Books API returned no data for id: " + bookId);
+            }
+            book.setId(bookId);
+            return book;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed volume JSON for " + bookId + ": " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a volumes search response, handing each item to {@code sink} as soon as it is
+     * parsed. Returns the number of items read. A body that isn't a JSON object is reported as
+     * {@link IllegalArgumentException}, like in {@link #readVolume}.
+     */
+    public int readSearchResults(InputStream body, String addedBy, Consumer<Book> sink) throws IOException {
+        int count = 0;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object from the volumes search");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        Book book = parser.currentToken() == JsonToken.START_OBJECT
+                                ? readVolumeObject(parser, addedBy) : skip(parser);
+                        if (book != null && book.getId() != null) {
+                            sink.accept(book);
+                            count++;
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed volumes search JSON: " + e.getOriginalMessage(), e);
+        }
+        return count;
+    }
+
+    /**
+     * Reads a volume object; the parser must be on its START_OBJECT and is left on the matching
+     * END_OBJECT. Returns null when the volume has no {@code volumeInfo}.
+     */
+    private Book readVolumeObject(JsonParser parser, String addedBy) throws IOException {
+        String id = null;
+        Book book = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                id = text(parser);
+            } else if ("volumeInfo".equals(field) && value == JsonToken.START_OBJECT) {
+                book = readVolumeInfo(parser, addedBy);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (book != null) {
+            book.setId(id);
+        }
+        return book;
+    }
+
+    private Book readVolumeInfo(JsonParser parser, String addedBy) throws IOException {
+        Book book = new Book();
+        book.setTitle("Unknown Title");
+        book.setAuthor("Unknown Author");
+        book.setGenre("General");
+        book.setDescription("No description available");
+        book.setImage(DEFAULT_IMAGE);
+        book.setRating(3.5);
+        String publishedDate = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "title" -> book.setTitle(orDefault(text(parser), book.getTitle()));
+                case "authors" -> book.setAuthor(orDefault(firstText(parser), book.getAuthor()));
+                case "categories" -> book.setGenre(orDefault(firstText(parser), book.getGenre()));
+                case "description" -> book.setDescription(orDefault(text(parser), book.getDescription()));
+                case "imageLinks" -> book.setImage(orDefault(thumbnail(parser), book.getImage()));
+                case "averageRating" -> {
+                    if (value.isNumeric()) {
+                        book.setRating(parser.getDoubleValue());
+                    }
+                }
+                case "publishedDate" -> publishedDate = text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        book.setPublicationDate(parsePublicationDate(publishedDate));
+        book.setPrice(randomPrice());
+        book.setInStock(true);
+        book.setAddedBy(addedBy);
+        return book;
+    }
+
+    /** The current scalar as text, or null (skipping the value) for objects, arrays and nulls. */
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING || (token != null && token.isNumeric())) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /** First element of a string array such as {@code authors}; the rest of the array is skipped. */
+    private static String firstText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String first = null;
+        boolean firstElement = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String value = text(parser);
+            if (firstElement) {
+                first = value;
+                firstElement = false;
+            }
+        }
+        return first;
+    }
+
+    private static String thumbnail(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String thumbnail = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("thumbnail".equals(field)) {
+                thumbnail = text(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return thumbnail;
+    }
+
+    private static Book skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /** Google doesn't sell at a fixed price, so imported books get one in the 100-1100 range. */
+    static BigDecimal randomPrice() {
+        return BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble(100, 1100)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /** Accepts Google's "yyyy", "yyyy-MM" and "yyyy-MM-dd" forms; anything else becomes today. */
+    static LocalDate parsePublicationDate(String publishedDateStr) {
+        if (publishedDateStr == null || publishedDateStr.isBlank()) {
+            return LocalDate.now();
+        }
+        try {
+            if (publishedDateStr.matches("\\d{4}")) {
+                return LocalDate.of(Integer.parseInt(publishedDateStr), 1, 1);
+            } else if (publishedDateStr.matches("\\d{4}-\\d{2}")) {
+                YearMonth ym = YearMonth.parse(publishedDateStr, DateTimeFormatter.ofPattern("yyyy-MM"));
+                return ym.atDay(1);
+            } else {
+                return LocalDate.parse(publishedDateStr);
+            }
+        } catch (Exception e) {
+            return LocalDate.now();
+        }
+    }
+}
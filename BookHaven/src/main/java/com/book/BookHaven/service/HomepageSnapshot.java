@@ -0,0 +1,258 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Homepage lists (newest books, top-rated books, genres) kept in memory and updated from
+ * {@link CatalogChangedEvent}s, so serving them does no database work.
+ *
+ * <p>Each ranking retains the exact best {@link #RETAINED} books of the catalog. Every book it
+ * does not retain ranks below the last one it does, so an upsert only has to be compared with
+ * that last entry. Deletes and demotions can drain a ranking; once fewer than {@link #TOP_K}
+ * are left while the catalog has more, it is reloaded from the database. Genres are reference
+ * counted per book, which is why the genre of every book id is tracked.</p>
+ */
+@Slf4j
+@Component
+public class HomepageSnapshot {
+
+    static final int TOP_K = 3;
+
+    // Headroom so a few deletes or demotions don't force a reload
+    private static final int RETAINED = TOP_K * 4;
+
+    private final BookRepository bookRepository;
+    private final boolean enabled;
+
+    private final Map<String, String> genreById = new HashMap<>();
+    private final TreeMap<String, Integer> genreCounts = new TreeMap<>();
+    private final Ranking featured = new Ranking(
+            Comparator.comparing(BookResponse::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                    .thenComparing(BookResponse::getId),
+            Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id")));
+    private final Ranking topRated = new Ranking(
+            Comparator.comparingDouble(BookResponse::getRating).reversed().thenComparing(BookResponse::getId),
+            Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("id")));
+
+    // Published copies, swapped under the monitor and read without it
+    private volatile List<String> genres = List.of();
+    private volatile boolean ready;
+    private List<CatalogChangedEvent> pendingDuringRebuild;
+
+    public HomepageSnapshot(BookRepository bookRepository,
+                            @Value("${catalog.homepage-snapshot.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<BookResponse> featured() {
+        return featured.top;
+    }
+
+    public List<BookResponse> topRated() {
+        return topRated.top;
+    }
+
+    public List<String> genres() {
+        return genres;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        List<Object[]> idsAndGenres;
+        List<BookResponse> newest;
+        List<BookResponse> best;
+        try {
+            idsAndGenres = bookRepository.findAllIdsAndGenres();
+            newest = featured.load();
+            best = topRated.load();
+        } catch (RuntimeException e) {
+            log.error("Failed to load homepage snapshot, homepage lists will use the database", e);
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            genreById.clear();
+            genreCounts.clear();
+            for (Object[] row : idsAndGenres) {
+                putGenre((String) row[0], (String) row[1]);
+            }
+            featured.reset(newest);
+            topRated.reset(best);
+            // Changes committed while we were reading may be newer than what we loaded
+            pendingDuringRebuild.forEach(this::apply);
+            pendingDuringRebuild = null;
+            publishGenres();
+            ready = true;
+        }
+        log.info("Homepage snapshot loaded over {} books and {} genres", idsAndGenres.size(), genres.size());
+    }
+
+    // Ahead of CatalogVersion, which must only publish a new ETag once the snapshot has the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(event);
+            return;
+        }
+        if (ready) {
+            apply(event);
+            publishGenres();
+        }
+    }
+
+    private void apply(CatalogChangedEvent event) {
+        for (String id : event.removedIds()) {
+            if (genreById.containsKey(id)) {
+                decrement(genreById.remove(id));
+            }
+            featured.remove(id);
+            topRated.remove(id);
+        }
+        for (Book book : event.upserted()) {
+            putGenre(book.getId(), book.getGenre());
+            BookResponse response = BookResponse.fromEntity(book);
+            response.setDescription(null);
+            featured.upsert(response);
+            topRated.upsert(response);
+        }
+    }
+
+    private void putGenre(String id, String genre) {
+        boolean known = genreById.containsKey(id);
+        String previous = genreById.put(id, genre);
+        if (known && Objects.equals(previous, genre)) {
+            return;
+        }
+        if (known) {
+            decrement(previous);
+        }
+        if (genre != null) {
+            genreCounts.merge(genre, 1, Integer::sum);
+        }
+    }
+
+    private void decrement(String genre) {
+        if (genre != null) {
+            genreCounts.computeIfPresent(genre, (g, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void publishGenres() {
+        genres = List.copyOf(genreCounts.keySet());
+    }
+
+    private final class Ranking {
+
+        private final Comparator<BookResponse> order;
+        private final Sort sort;
+        private final TreeSet<BookResponse> retained;
+        private final Map<String, BookResponse> byId = new HashMap<>();
+        private volatile List<BookResponse> top = List.of();
+
+        private Ranking(Comparator<BookResponse> order, Sort sort) {
+            this.order = order;
+            this.sort = sort;
+            this.retained = new TreeSet<>(order);
+        }
+
+        private List<BookResponse> load() {
+            return bookRepository.findSummaries(PageRequest.of(0, RETAINED, sort))
+                    .stream().map(BookResponse::fromSummary).toList();
+        }
+
+        private void reset(List<BookResponse> books) {
+            retained.clear();
+            byId.clear();
+            for (BookResponse book : books) {
+                retained.add(book);
+                byId.put(book.getId(), book);
+            }
+            publish();
+        }
+
+        private void upsert(BookResponse book) {
+            drop(book.getId());
+            boolean othersAllRetained = retained.size() >= genreById.size() - 1;
+            if (othersAllRetained || (!retained.isEmpty() && order.compare(book, retained.last()) < 0)) {
+                retained.add(book);
+                byId.put(book.getId(), book);
+                while (retained.size() > RETAINED) {
+                    byId.remove(retained.pollLast().getId());
+                }
+            }
+            refillIfDrained();
+            publish();
+        }
+
+        private void remove(String id) {
+            if (drop(id)) {
+                refillIfDrained();
+                publish();
+            }
+        }
+
+        private boolean drop(String id) {
+            BookResponse existing = byId.remove(id);
+            return existing != null && retained.remove(existing);
+        }
+
+        private void refillIfDrained() {
+            if (retained.size() < TOP_K && genreById.size() > retained.size()) {
+                log.debug("Homepage ranking drained to {} books, reloading", retained.size());
+                reset(load());
+            }
+        }
+
+        private void publish() {
+            List<BookResponse> head = new ArrayList<>(TOP_K);
+            Iterator<BookResponse> it = retained.iterator();
+            while (it.hasNext() && head.size() < TOP_K) {
+                head.add(it.next());
+            }
+            top = List.copyOf(head);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.OrderResponse;
+import com.book.BookHaven.dto.UserIdentity;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.Order;
+import com.book.BookHaven.entity.OrderLine;
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.exception.ResourceNotFoundException;
+import com.book.BookHaven.exception.ValidationException;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.repository.BookRepositoryCustom.ReservedBook;
+import com.book.BookHaven.repository.CartRepository;
+import com.book.BookHaven.repository.CartRepositoryCustom.CartQuantity;
+import com.book.BookHaven.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class OrderService {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    private final CartRepository cartRepository;
+    private final BookRepository bookRepository;
+    private final OrderRepository orderRepository;
+    private final UserIdentityService userIdentityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderService(CartRepository cartRepository,
+                        BookRepository bookRepository,
+                        OrderRepository orderRepository,
+                        UserIdentityService userIdentityService,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.bookRepository = bookRepository;
+        this.orderRepository = orderRepository;
+        this.userIdentityService = userIdentityService;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Turns the user's cart into an order in one short transaction made only of conditional
+     * writes, so there is no read-then-write window for a concurrent checkout to slip into:
+     * the order row claims the idempotency key, the cart is deleted and returned in the same
+     * statement, and each book's stock is taken with a guarded UPDATE. Any line that can't be
+     * reserved rolls the whole checkout back, cart included.
+     *
+     * <p>With an {@code idempotencyKey}, a retry returns the order the first attempt placed
+     * rather than failing on the now empty cart; a concurrent duplicate waits on the unique
+     * key and then does the same.</p>
+     */
+    @CacheEvict(value = {"userCart", "cartCount", "cartTotal"}, key = "#email")
+    public OrderResponse checkout(String email, String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new ValidationException(String.format(
+                    "Idempotency-Key must be 1 to %d characters", MAX_IDEMPOTENCY_KEY_LENGTH));
+        }
+        log.info("Processing checkout for user: {}", email);
+
+        String userId = findUserId(email);
+        if (idempotencyKey != null) {
+            Optional<OrderResponse> placed = findPlaced(userId, idempotencyKey);
+            if (placed.isPresent()) {
+                log.info("Checkout for user: {} replayed order {}", email, placed.get().getOrderId());
+                return placed.get();
+            }
+        }
+
+        OrderResponse order;
+        try {
+            order = writeTransaction.execute(status -> placeOrder(userId, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            Optional<OrderResponse> placed = idempotencyKey != null ? findPlaced(userId, idempotencyKey) : Optional.empty();
+            if (placed.isEmpty()) {
+                throw e;
+            }
+            log.info("Checkout for user: {} lost to a concurrent duplicate, returning order {}",
+                    email, placed.get().getOrderId());
+            return placed.get();
+        }
+
+        log.info("Checkout successful for user: {}, order {} with total amount: {}",
+                email, order.getOrderId(), order.getTotalAmount());
+        return order;
+    }
+
+    private OrderResponse placeOrder(String userId, String idempotencyKey) {
+        Order order = new Order(entityManager.getReference(User.class, userId), idempotencyKey);
+        // Claim the key before touching cart or stock, so a duplicate blocks here and does no work
+        orderRepository.saveAndFlush(order);
+
+        List<CartQuantity> lines = new ArrayList<>(cartRepository.takeAll(userId));
+        if (lines.isEmpty()) {
+            throw new ValidationException("Cannot checkout with empty cart");
+        }
+        // Every checkout locks book rows in the same order, so overlapping carts can't deadlock
+        lines.sort(Comparator.comparing(CartQuantity::bookId));
+
+        List<String> soldOut = new ArrayList<>();
+        for (CartQuantity line : lines) {
+            ReservedBook book = bookRepository.reserveStock(line.bookId(), line.quantity())
+                    .orElseThrow(() -> new ValidationException(String.format(
+                            "Book '%s' is out of stock or has fewer than %d copies left",
+                            bookRepository.findById(line.bookId()).map(Book::getTitle).orElse(line.bookId()),
+                            line.quantity())));
+            order.addLine(new OrderLine(line.bookId(), book.title(), book.price(), line.quantity()));
+            if (book.soldOut()) {
+                soldOut.add(line.bookId());
+            }
+        }
+
+        if (!soldOut.isEmpty()) {
+            // inStock changed behind JPA's back; in-memory catalog views pick it up after commit
+            eventPublisher.publishEvent(CatalogChangedEvent.upserted(bookRepository.findAllById(soldOut)));
+        }
+        return OrderResponse.fromEntity(order);
+    }
+
+    private Optional<OrderResponse> findPlaced(String userId, String idempotencyKey) {
+        return readTransaction.execute(status -> orderRepository
+                .findWithLinesByIdempotencyKey(userId, idempotencyKey)
+                .map(OrderResponse::fromEntity));
+    }
+
+    private String findUserId(String email) {
+        return userIdentityService.find(email)
+                .map(UserIdentity::userId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("User not found with email: %s", email)));
+    }
+}
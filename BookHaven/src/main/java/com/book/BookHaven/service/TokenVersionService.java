@@ -0,0 +1,62 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Answers "has this user's token been revoked?" for stateless authentication. Current token
+ * versions are cached per user id, so a warm cache makes the check free; on other instances a
+ * revocation takes effect once their cached entry expires.
+ */
+@Slf4j
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<String, Integer> currentVersions;
+
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${jwt.token-version.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${jwt.token-version.cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        // Unknown users map to -1 so deleted accounts fail the check without repeated lookups
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(userId -> userRepository.findTokenVersionById(userId).orElse(-1));
+    }
+
+    public boolean isCurrent(String userId, int tokenVersion) {
+        return currentVersions.get(userId) == tokenVersion;
+    }
+
+    /**
+     * Bumps the user's token version. The cached version is dropped only after the bump commits;
+     * dropping it earlier would let a concurrent request reload the old version and keep the
+     * revoked tokens valid on this instance for the cache TTL.
+     */
+    @Transactional
+    public void revokeTokens(String userId) {
+        userRepository.incrementTokenVersion(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    currentVersions.invalidate(userId);
+                }
+            });
+        } else {
+            currentVersions.invalidate(userId);
+        }
+        log.info("Revoked all tokens for user: {}", userId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps {@link UserIdentityService} in step with changes made through JPA. Created by
+ * Hibernate through Spring's bean container; the service is looked up lazily because the
+ * listener is instantiated while the EntityManagerFactory it depends on is still being built.
+ */
+public class UserIdentityListener {
+
+    private final ObjectProvider<UserIdentityService> userIdentityService;
+
+    public UserIdentityListener(ObjectProvider<UserIdentityService> userIdentityService) {
+        this.userIdentityService = userIdentityService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onUserChanged(User user) {
+        userIdentityService.ifAvailable(service -> service.evict(user.getEmail()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.UserIdentity;
+import com.book.BookHaven.entity.User;
+import com.book.BookHaven.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves an authenticated email to its user id and role without loading the {@link User}
+ * entity. Entries are written at login and registration, loaded on demand otherwise, and
+ * dropped by {@link UserIdentityListener} whenever a user row is updated or deleted.
+ */
+@Service
+public class UserIdentityService {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> identities;
+
+    public UserIdentityService(UserRepository userRepository,
+                               @Value("${user.identity.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${user.identity.cache.ttl:30m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** Unknown emails are not cached, so a user registered on another instance is found at once. */
+    public Optional<UserIdentity> find(String email) {
+        return Optional.ofNullable(identities.get(email, key -> userRepository.findIdentityByEmail(key).orElse(null)));
+    }
+
+    public void remember(User user) {
+        identities.put(user.getEmail(), new UserIdentity(user.getId(), user.getRole()));
+    }
+
+    public void evict(String email) {
+        identities.invalidate(email);
+    }
+}
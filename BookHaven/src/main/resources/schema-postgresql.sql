@@ -0,0 +1,29 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization); every statement must be idempotent.
+
+-- Cart ids come from cart_seq (pooled-lo, 50 per allocation) rather than an identity column, so
+-- Hibernate can batch cart inserts; the column default covers plain SQL inserts
+CREATE SEQUENCE IF NOT EXISTS cart_seq INCREMENT BY 50;
+ALTER TABLE cart ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cart ALTER COLUMN id SET DEFAULT nextval('cart_seq');
+-- Past every existing id, and never backwards: blocks already handed out to running instances stay theirs
+SELECT setval('cart_seq', GREATEST((SELECT last_value FROM cart_seq), (SELECT COALESCE(MAX(id), 0) + 1 FROM cart)));
+
+-- Full-text search over the catalog, used by BookRepository.findIdsByFullTextSearch
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(author, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(genre, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_author_trgm ON books USING GIN (lower(author) gin_trgm_ops);
+
+-- Author is a sort key for listings and cursors, so it needs a value on every row;
+-- ddl-auto=update never tightens an existing column
+UPDATE books SET author = 'Unknown Author' WHERE author IS NULL;
+ALTER TABLE books ALTER COLUMN author SET NOT NULL;
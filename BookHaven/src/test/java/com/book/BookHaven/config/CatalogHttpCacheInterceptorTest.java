@@ -0,0 +1,97 @@
+package com.book.BookHaven.config;
+
+import com.book.BookHaven.service.CatalogVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogHttpCacheInterceptorTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final CatalogHttpCacheInterceptor interceptor =
+            new CatalogHttpCacheInterceptor(catalogVersion, Duration.ofSeconds(60));
+
+    @Test
+    void tagsSuccessfulResponseAndLetsRequestThrough() throws Exception {
+        MockHttpServletRequest request = get(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        writeBody(request, response);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag());
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=60, public");
+    }
+
+    @Test
+    void errorResponsesAreNotMadeCacheable() throws Exception {
+        MockHttpServletRequest request = get(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        // The handler rejected the request, e.g. a malformed cursor
+        response.setStatus(400);
+        writeBody(request, response);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    @Test
+    void answersCurrentTagWithNotModified() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(get(catalogVersion.etag()), response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(catalogVersion.etag());
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=60, public");
+    }
+
+    @Test
+    void catalogChangeInvalidatesTag() throws Exception {
+        String before = catalogVersion.etag();
+        catalogVersion.onCatalogChanged(null);
+        MockHttpServletRequest request = get(before);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        writeBody(request, response);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+    }
+
+    @Test
+    void ignoresWrites() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/books/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    /** What the message converter path does once the handler has returned a body. */
+    private void writeBody(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+        interceptor.beforeBodyWrite(List.of(), null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), outputMessage);
+        outputMessage.flush();
+    }
+
+    private static MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,368 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.config.GoogleBooksClientConfig;
+import com.book.BookHaven.dto.BookImportRequest;
+import com.book.BookHaven.dto.BookImportStatus;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.BookImportJob;
+import com.book.BookHaven.entity.BookImportProgress;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookImportJobRepository;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.support.GoogleBooksStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookImportServiceTest {
+
+    private GoogleBooksStubServer stub;
+    private CloseableHttpClient httpClient;
+    private final List<Book> written = new ArrayList<>();
+    // Rows as the database holds them after the upserts, ON CONFLICT rules applied
+    private final Map<String, Book> stored = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final Map<String, BookImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicBoolean failNextWrite = new AtomicBoolean();
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private BookImportService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleBooksStubServer();
+        BookRepository bookRepository = mock(BookRepository.class);
+        // "vol-0".."vol-9" are already in the catalog
+        when(bookRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id.matches("vol-\\d")).collect(Collectors.toSet());
+        });
+        doAnswer(invocation -> {
+            if (failNextWrite.getAndSet(false)) {
+                throw new DataAccessResourceFailureException("Connection reset");
+            }
+            List<Book> books = invocation.getArgument(0);
+            synchronized (written) {
+                written.addAll(books);
+            }
+            books.forEach(book -> stored.merge(book.getId(), copy(book), (existing, fresh) -> {
+                existing.setTitle(fresh.getTitle());
+                existing.setAuthor(fresh.getAuthor());
+                existing.setRating(fresh.getRating());
+                return existing;
+            }));
+            return null;
+        }).when(bookRepository).upsertAll(anyList());
+        when(bookRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Book> rows = new ArrayList<>();
+            ((Iterable<String>) invocation.getArgument(0)).forEach(id -> rows.add(copy(stored.get(id))));
+            return rows;
+        });
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GoogleBooksClientConfig config = new GoogleBooksClientConfig();
+        httpClient = config.googleBooksHttpClient(Duration.ofSeconds(1), Duration.ofSeconds(2),
+                Duration.ofSeconds(1), 10, Duration.ofSeconds(30));
+        GoogleBooksClient client = new GoogleBooksClient(
+                config.googleBooksRestTemplate(httpClient),
+                config.googleBooksCircuitBreaker(meterRegistry, 50, 20, Duration.ofSeconds(2), Duration.ofMinutes(1)),
+                config.googleBooksBulkhead(meterRegistry, 20, Duration.ofSeconds(1)),
+                config.googleBooksRetry(meterRegistry, 1, Duration.ofMillis(10)),
+                meterRegistry,
+                stub.apiUrl());
+        service = new BookImportService(client, new GoogleVolumeMapper(new ObjectMapper()), bookRepository,
+                jobRepository(), eventPublisher, mock(PlatformTransactionManager.class), executor(1), executor(4),
+                meterRegistry, 25, 10, 1000, Duration.ofHours(1), Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+        stub.close();
+        httpClient.close(CloseMode.IMMEDIATE);
+    }
+
+    @Test
+    void importsVolumeIdsInBatchesAndSkipsExistingOnes() throws Exception {
+        BookImportRequest request = new BookImportRequest();
+        request.setVolumeIds(IntStream.range(0, 60).mapToObj(i -> "vol-" + i).toList());
+
+        BookImportStatus status = awaitFinished(service.startImport(request, "admin@example.com").getJobId());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getProcessed()).isEqualTo(60);
+        assertThat(status.getSkipped()).isEqualTo(10);
+        assertThat(status.getImported()).isEqualTo(50);
+        assertThat(stub.requestCount()).isEqualTo(50);
+        assertThat(written).extracting(Book::getTitle).contains("Stub Title vol-42");
+        ArgumentCaptor<CatalogChangedEvent> events = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues()).allMatch(CatalogChangedEvent::insertedOnly);
+    }
+
+    @Test
+    void importsSearchResultsPageByPage() throws Exception {
+        BookImportRequest request = new BookImportRequest();
+        request.setQuery("subject:fiction");
+        request.setMaxResults(200);
+
+        BookImportStatus status = awaitFinished(service.startImport(request, "admin@example.com").getJobId());
+
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getImported()).isEqualTo(GoogleBooksStubServer.SEARCH_RESULTS);
+        Set<String> ids = written.stream().map(Book::getId).collect(Collectors.toSet());
+        assertThat(ids).hasSize(GoogleBooksStubServer.SEARCH_RESULTS).contains("hit-0", "hit-94");
+    }
+
+    @Test
+    void retriedChunkIsCountedOnce() throws Exception {
+        // The first chunk (vol-0..vol-24, ten of them already listed) fails on its write
+        failNextWrite.set(true);
+        BookImportRequest request = new BookImportRequest();
+        request.setVolumeIds(IntStream.range(0, 30).mapToObj(i -> "vol-" + i).toList());
+
+        String jobId = service.startImport(request, "admin@example.com").getJobId();
+        BookImportStatus failed = awaitFinished(jobId);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getProcessed()).isZero();
+        assertThat(failed.getSkipped()).isZero();
+
+        service.resume(jobId);
+
+        BookImportStatus status = awaitFinished(jobId);
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getProcessed()).isEqualTo(30);
+        assertThat(status.getSkipped()).isEqualTo(10);
+        assertThat(status.getImported()).isEqualTo(20);
+    }
+
+    @Test
+    void jobCutOffByARestartCanBeResumed() throws Exception {
+        BookImportJob job = new BookImportJob(List.of("new-1", "new-2", "new-3"), null, 3, false, "admin@example.com");
+        job.setStatus(BookImportJob.Status.RUNNING);
+        job.setNextIndex(1);
+        job.setImported(1);
+        job.setUpdatedAt(Instant.now().minus(Duration.ofHours(1)));
+        jobs.put(job.getId(), job);
+
+        service.resume(job.getId());
+
+        BookImportStatus status = awaitFinished(job.getId());
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getImported()).isEqualTo(3);
+        assertThat(written).extracting(Book::getId).containsExactly("new-2", "new-3");
+    }
+
+    @Test
+    void overwritePublishesTheBooksAsStored() throws Exception {
+        LocalDateTime listedAt = LocalDateTime.of(2024, 3, 1, 9, 30);
+        Book listed = new Book("vol-3", "Old Title", "Old Author", LocalDate.of(2001, 5, 1), "Fiction", "",
+                new BigDecimal("42.00"), "https://example.com/vol-3.jpg", 3.0, true, "admin@example.com", listedAt);
+        listed.setStock(7);
+        stored.put("vol-3", listed);
+
+        BookImportRequest request = new BookImportRequest();
+        request.setVolumeIds(List.of("vol-3", "new-1"));
+        request.setOverwrite(true);
+        assertThat(awaitFinished(service.startImport(request, "admin@example.com").getJobId()).getStatus())
+                .isEqualTo("COMPLETED");
+
+        ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().insertedOnly()).isFalse();
+        Map<String, Book> published = event.getValue().upserted().stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        Book updated = published.get("vol-3");
+        assertThat(updated.getTitle()).isEqualTo("Stub Title vol-3");
+        assertThat(updated.getPrice()).isEqualByComparingTo("42.00");
+        assertThat(updated.getStock()).isEqualTo(7);
+        assertThat(updated.getAddedBy()).isEqualTo("admin@example.com");
+        assertThat(updated.getCreatedAt()).isEqualTo(listedAt);
+        assertThat(published.get("new-1").getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void failedImportResumesWhereItStopped() throws Exception {
+        stub.respondWith(503);
+        BookImportRequest request = new BookImportRequest();
+        request.setQuery("subject:fiction");
+        request.setMaxResults(50);
+
+        String jobId = service.startImport(request, "admin@example.com").getJobId();
+        assertThat(awaitFinished(jobId).getStatus()).isEqualTo("FAILED");
+
+        stub.respondWith(200);
+        service.resume(jobId);
+
+        BookImportStatus status = awaitFinished(jobId);
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getImported()).isEqualTo(50);
+    }
+
+    @Test
+    void volumesLostToAnOutageAreNotSkipped() throws Exception {
+        stub.respondWith(503);
+        BookImportRequest request = new BookImportRequest();
+        request.setVolumeIds(List.of("new-1", "new-2", "new-3"));
+
+        String jobId = service.startImport(request, "admin@example.com").getJobId();
+        BookImportStatus failed = awaitFinished(jobId);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getProcessed()).isZero();
+        assertThat(failed.getFailed()).isZero();
+        assertThat(jobs.get(jobId).getNextIndex()).isZero();
+
+        stub.respondWith(200);
+        service.resume(jobId);
+
+        BookImportStatus status = awaitFinished(jobId);
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getImported()).isEqualTo(3);
+        assertThat(status.getFailed()).isZero();
+    }
+
+    private BookImportStatus awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            BookImportStatus status = service.getStatus(jobId);
+            if (status.getStatus().equals("COMPLETED") || status.getStatus().equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import " + jobId + " did not finish");
+    }
+
+    /** Job rows kept in {@link #jobs}, with the repository's conditional updates applied the way the SQL does. */
+    private BookImportJobRepository jobRepository() {
+        BookImportJobRepository repository = mock(BookImportJobRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            BookImportJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(jobs.get((String) invocation.getArgument(0))));
+        when(repository.findProgressById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(jobs.get((String) invocation.getArgument(0))).map(BookImportServiceTest::progress));
+        when(repository.start(anyString(), any(), any(), any())).thenAnswer(invocation -> update(invocation.getArgument(0),
+                job -> job.getStatus() == BookImportJob.Status.QUEUED, job -> {
+                    job.setStatus(BookImportJob.Status.RUNNING);
+                    if (job.getStartedAt() == null) {
+                        job.setStartedAt(invocation.getArgument(3));
+                    }
+                }));
+        when(repository.advance(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> update(invocation.getArgument(0),
+                        job -> job.getNextIndex() == (int) invocation.getArgument(1), job -> {
+                            job.setNextIndex(invocation.getArgument(2));
+                            job.setImported(job.getImported() + (int) invocation.getArgument(3));
+                            job.setSkipped(job.getSkipped() + (int) invocation.getArgument(4));
+                            job.setFailed(job.getFailed() + (int) invocation.getArgument(5));
+                            job.setUpdatedAt(invocation.getArgument(6));
+                        }));
+        when(repository.finish(anyString(), any(), any(), any())).thenAnswer(invocation -> update(invocation.getArgument(0),
+                job -> true, job -> {
+                    job.setStatus(invocation.getArgument(1));
+                    job.setError(invocation.getArgument(2));
+                    job.setFinishedAt(invocation.getArgument(3));
+                }));
+        when(repository.requeue(anyString(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Instant staleBefore = invocation.getArgument(4);
+            return update(invocation.getArgument(0), job -> job.getStatus() == BookImportJob.Status.FAILED
+                    || (job.getStatus() != BookImportJob.Status.COMPLETED && job.getUpdatedAt().isBefore(staleBefore)),
+                    job -> {
+                        job.setStatus(BookImportJob.Status.QUEUED);
+                        job.setError(null);
+                        job.setFinishedAt(null);
+                        job.setUpdatedAt(invocation.getArgument(5));
+                    });
+        });
+        return repository;
+    }
+
+    private int update(String jobId, Predicate<BookImportJob> where, Consumer<BookImportJob> set) {
+        synchronized (jobs) {
+            BookImportJob job = jobs.get(jobId);
+            if (job == null || !where.test(job)) {
+                return 0;
+            }
+            set.accept(job);
+            return 1;
+        }
+    }
+
+    private static BookImportProgress progress(BookImportJob job) {
+        BookImportProgress progress = mock(BookImportProgress.class);
+        when(progress.getId()).thenReturn(job.getId());
+        when(progress.getStatus()).thenReturn(job.getStatus());
+        when(progress.getQuery()).thenReturn(job.getQuery());
+        when(progress.getTotal()).thenReturn(job.getTotal());
+        when(progress.getNextIndex()).thenReturn(job.getNextIndex());
+        when(progress.getImported()).thenReturn(job.getImported());
+        when(progress.getSkipped()).thenReturn(job.getSkipped());
+        when(progress.getFailed()).thenReturn(job.getFailed());
+        when(progress.getStartedAt()).thenReturn(job.getStartedAt());
+        when(progress.getFinishedAt()).thenReturn(job.getFinishedAt());
+        when(progress.getError()).thenReturn(job.getError());
+        return progress;
+    }
+
+    private static Book copy(Book book) {
+        Book copy = new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationDate(),
+                book.getGenre(), book.getDescription(), book.getPrice(), book.getImage(), book.getRating(),
+                book.isInStock(), book.getAddedBy(), book.getCreatedAt());
+        copy.setStock(book.getStock());
+        return copy;
+    }
+
+    private ThreadPoolTaskExecutor executor(int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.initialize();
+        executors.add(executor);
+        return executor;
+    }
+}
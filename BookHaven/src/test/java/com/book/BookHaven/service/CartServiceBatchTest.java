@@ -0,0 +1,122 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.CartBatchRequest;
+import com.book.BookHaven.dto.CartOperation;
+import com.book.BookHaven.dto.UserIdentity;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.exception.ValidationException;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.repository.CartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartServiceBatchTest {
+
+    private static final String EMAIL = "reader@example.com";
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final GoogleBookService googleBookService = mock(GoogleBookService.class);
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        UserIdentityService userIdentityService = mock(UserIdentityService.class);
+        when(userIdentityService.find(EMAIL)).thenReturn(Optional.of(new UserIdentity("user-1", "USER")));
+        // "bk1".."bk3" are in the catalog; anything else comes from Google Books
+        when(bookRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id.matches("bk[1-3]")).map(id -> book(id, true)).toList();
+        });
+        when(googleBookService.fetchBookFromGoogle(anyString()))
+                .thenAnswer(invocation -> book(invocation.getArgument(0), true));
+
+        cartService = new CartService(googleBookService, cartRepository, bookRepository, userIdentityService,
+                mock(PlatformTransactionManager.class), new TaskExecutorAdapter(new SyncTaskExecutor()),
+                new SimpleMeterRegistry(), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void foldsOperationsIntoOneNetChangePerBook() {
+        cartService.applyBatch(batch(
+                op(CartOperation.Action.ADD, "bk1", 2),
+                op(CartOperation.Action.ADD, "bk1", null),
+                op(CartOperation.Action.ADD, "bk2", 1),
+                op(CartOperation.Action.UPDATE, "bk2", 5),
+                op(CartOperation.Action.ADD, "bk2", 1),
+                op(CartOperation.Action.REMOVE, "bk3", null),
+                op(CartOperation.Action.ADD, "g-new", 1),
+                op(CartOperation.Action.REMOVE, "g-new", null),
+                op(CartOperation.Action.UPDATE, "bk3", 0)
+        ), EMAIL);
+
+        verify(cartRepository).applyChanges("user-1", Map.of("bk1", 3), Map.of("bk2", 6), Set.of("bk3", "g-new"));
+        // One bulk read for the catalog books; removed books are not looked up at all
+        verify(bookRepository, times(1)).findAllById(any());
+        verify(googleBookService, never()).fetchBookFromGoogle(anyString());
+        verify(cartRepository).findItemResponsesByUserEmail(EMAIL);
+    }
+
+    @Test
+    void importsBooksMissingFromTheCatalog() {
+        cartService.applyBatch(batch(op(CartOperation.Action.ADD, "gg-1", 1), op(CartOperation.Action.ADD, "bk1", 1)), EMAIL);
+
+        verify(googleBookService).fetchBookFromGoogle("gg-1");
+        verify(cartRepository).applyChanges("user-1", Map.of("gg-1", 1, "bk1", 1), Map.of(), Set.of());
+    }
+
+    @Test
+    void rejectsTheWholeBatchWhenABookIsOutOfStock() {
+        when(googleBookService.fetchBookFromGoogle("g-gone")).thenReturn(book("g-gone", false));
+
+        assertThatThrownBy(() -> cartService.applyBatch(batch(
+                op(CartOperation.Action.ADD, "bk1", 1),
+                op(CartOperation.Action.ADD, "g-gone", 1)), EMAIL))
+                .isInstanceOf(ValidationException.class);
+        verify(cartRepository, never()).applyChanges(anyString(), anyMap(), anyMap(), anyCollection());
+    }
+
+    private static CartBatchRequest batch(CartOperation... operations) {
+        CartBatchRequest request = new CartBatchRequest();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static CartOperation op(CartOperation.Action action, String bookId, Integer quantity) {
+        CartOperation operation = new CartOperation();
+        operation.setAction(action);
+        operation.setBookId(bookId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private static Book book(String id, boolean inStock) {
+        return new Book(id, "Title " + id, "Author", LocalDate.of(2000, 1, 1), "Genre", "description",
+                new BigDecimal("9.99"), "https://example.com/cover.jpg", 4.0, inStock, "System", LocalDateTime.now());
+    }
+}
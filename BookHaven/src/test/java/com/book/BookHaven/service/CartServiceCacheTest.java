@@ -0,0 +1,142 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.config.CacheConfig;
+import com.book.BookHaven.dto.UserIdentity;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.entity.Cart;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.repository.CartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+@TestPropertySource(properties = {
+        "cache.userCart.spec=maximumSize=100,expireAfterWrite=10m",
+        "cache.cartCount.spec=maximumSize=100,expireAfterWrite=10m",
+        "cache.cartTotal.spec=maximumSize=100,expireAfterWrite=10m"
+})
+class CartServiceCacheTest {
+
+    private static final String EMAIL = "reader@example.com";
+    private static final String OTHER_EMAIL = "other@example.com";
+    private static final String THIRD_EMAIL = "third@example.com";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void catalogChangeDropsCachedTotals() {
+        Book book = new Book("bk1", "Title", "Author", LocalDate.of(2000, 1, 1), "Genre", "description",
+                new BigDecimal("10.00"), "https://example.com/cover.jpg", 4.0, true, "System", LocalDateTime.now());
+        Cart line = new Cart(null, book, 2);
+        when(cartRepository.findByUserIdWithBooks("user-1")).thenReturn(List.of(line));
+
+        assertThat(cartService.getCartTotal(EMAIL)).isEqualByComparingTo("20.00");
+
+        // Repriced by an admin: the cached total survives until the catalog event arrives
+        book.setPrice(new BigDecimal("15.00"));
+        assertThat(cartService.getCartTotal(EMAIL)).isEqualByComparingTo("20.00");
+
+        cartService.onCatalogChanged(CatalogChangedEvent.upserted(book));
+        assertThat(cartService.getCartTotal(EMAIL)).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void importOfNewBooksKeepsCachedCarts() {
+        Book book = new Book("bk2", "Title", "Author", LocalDate.of(2000, 1, 1), "Genre", "description",
+                new BigDecimal("10.00"), "https://example.com/cover.jpg", 4.0, true, "System", LocalDateTime.now());
+        when(cartRepository.findByUserIdWithBooks("user-2")).thenReturn(List.of(new Cart(null, book, 1)));
+        assertThat(cartService.getCartTotal(OTHER_EMAIL)).isEqualByComparingTo("10.00");
+
+        when(cartRepository.findByUserIdWithBooks("user-2")).thenReturn(List.of());
+        cartService.onCatalogChanged(CatalogChangedEvent.inserted(List.of(new Book("new-1", "New", "Author",
+                LocalDate.of(2020, 1, 1), "Genre", "", BigDecimal.ONE, "", 0.0, true, "System", LocalDateTime.now()))));
+
+        assertThat(cartService.getCartTotal(OTHER_EMAIL)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void cartWriteEvictsOnlyOnceItsTransactionCommits() {
+        Book book = new Book("bk3", "Title", "Author", LocalDate.of(2000, 1, 1), "Genre", "description",
+                new BigDecimal("10.00"), "https://example.com/cover.jpg", 4.0, true, "System", LocalDateTime.now());
+        when(cartRepository.findByUserIdWithBooks("user-3")).thenReturn(List.of(new Cart(null, book, 1)));
+        assertThat(cartService.getCartTotal(THIRD_EMAIL)).isEqualByComparingTo("10.00");
+        when(cartRepository.findByUserIdWithBooks("user-3")).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cartService.clearCart(THIRD_EMAIL);
+            // Not committed yet: the eviction waits, so nothing re-reads the old rows into the cache
+            assertThat(cacheManager.getCache("cartTotal").get(THIRD_EMAIL)).isNotNull();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cartService.getCartTotal(THIRD_EMAIL)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void cartRegionsAreBoundedCaffeineCaches() {
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("userCart", "cartCount", "cartTotal");
+        assertThat(cacheManager.getCache("books")).isNull();
+        Cache cartTotal = cacheManager.getCache("cartTotal");
+        assertThat(cartTotal).isInstanceOf(TransactionAwareCacheDecorator.class);
+        Object nativeCache = ((TransactionAwareCacheDecorator) cartTotal).getTargetCache().getNativeCache();
+        assertThat(((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).policy().eviction())
+                .hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(100));
+    }
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+
+        @Bean
+        CartRepository cartRepository() {
+            return mock(CartRepository.class);
+        }
+
+        @Bean
+        CartService cartService(CartRepository cartRepository) {
+            UserIdentityService userIdentityService = mock(UserIdentityService.class);
+            when(userIdentityService.find(EMAIL)).thenReturn(Optional.of(new UserIdentity("user-1", "USER")));
+            when(userIdentityService.find(OTHER_EMAIL)).thenReturn(Optional.of(new UserIdentity("user-2", "USER")));
+            when(userIdentityService.find(THIRD_EMAIL)).thenReturn(Optional.of(new UserIdentity("user-3", "USER")));
+            return new CartService(mock(GoogleBookService.class), cartRepository, mock(BookRepository.class),
+                    userIdentityService, mock(PlatformTransactionManager.class),
+                    new TaskExecutorAdapter(new SyncTaskExecutor()), new SimpleMeterRegistry(), Duration.ofSeconds(1));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.CartItemRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent adds of the same book against a real PostgreSQL, where {@code addToCart} runs
+ * as a single {@code INSERT ... ON CONFLICT} upsert. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "catalog.index.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class CartServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 25;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userId;
+    private String email;
+    private String bookId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID().toString();
+        email = userId + "@example.com";
+        bookId = "concurrent-" + userId;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, role, token_version) " +
+                "VALUES (?, ?, ?, 'x', ?, 'USER', 0)", userId, userId, email, now);
+        jdbcTemplate.update("INSERT INTO books (id, title, author, publication_date, genre, description, price, " +
+                "image, rating, in_stock, added_by, created_at) VALUES (?, 'Title', 'Author', DATE '2001-01-01', " +
+                "'Genre', 'Description', 10.00, 'img', 4.0, true, 'System', ?)", bookId, now);
+    }
+
+    @Test
+    void concurrentAddsOfTheSameBookAllCount() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        CartItemRequest request = new CartItemRequest();
+                        request.setBookId(bookId);
+                        request.setQuantity(1);
+                        cartService.addToCart(request, email);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Rethrows any failed add, e.g. a unique or optimistic-locking violation
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> quantities = jdbcTemplate.queryForList(
+                "SELECT quantity FROM cart WHERE user_id = ? AND book_id = ?", Integer.class, userId, bookId);
+        assertThat(quantities).containsExactly(THREADS * ADDS_PER_THREAD);
+    }
+}
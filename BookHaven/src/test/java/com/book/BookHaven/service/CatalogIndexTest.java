@@ -0,0 +1,106 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.dto.BookSummary;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogIndexTest {
+
+    private CatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findSummariesBySearchAndGenre(null, null, Sort.unsorted())).thenReturn(List.of(
+                summary(book("1", "Harry Potter and the Philosopher's Stone", "J. K. Rowling", "Fantasy", "9.99", 4.5)),
+                summary(book("2", "The Hobbit", "J. R. R. Tolkien", "Fantasy", "7.50", 4.8)),
+                summary(book("3", "Dune", "Frank Herbert", "Science Fiction", "12.00", 4.2)),
+                summary(book("4", "Clean Code", "Robert C. Martin", "Programming", "30.00", 4.1))
+        ));
+        index = new CatalogIndex(bookRepository, true);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesSubstringsLikeTheDatabaseQuery() {
+        assertThat(ids(index.search("otte", null, BookSortKey.TITLE, true))).containsExactly("1");
+        assertThat(ids(index.search("harry po", null, BookSortKey.TITLE, true))).containsExactly("1");
+        assertThat(ids(index.search("SCIENCE fic", null, BookSortKey.TITLE, true))).containsExactly("3");
+        assertThat(ids(index.search("j. r", null, BookSortKey.TITLE, true))).containsExactly("2");
+        assertThat(index.search("potter stone", null, BookSortKey.TITLE, true)).isEmpty();
+    }
+
+    @Test
+    void filtersByGenreAndSortsInBothDirections() {
+        assertThat(ids(index.search(null, "Fantasy", BookSortKey.RATING, false))).containsExactly("2", "1");
+        assertThat(ids(index.search(null, null, BookSortKey.PRICE, true))).containsExactly("2", "1", "3", "4");
+        assertThat(ids(index.search(null, null, BookSortKey.TITLE, false))).containsExactly("2", "1", "3", "4");
+    }
+
+    @Test
+    void cursorPagesFollowTheUnpagedOrder() {
+        // Mixed case is where a case-insensitive sort and a byte-order collation disagree
+        index.onCatalogChanged(CatalogChangedEvent.upserted(
+                book("5", "dune messiah", "frank herbert", "Science Fiction", "11.00", 4.0)));
+
+        for (BookSortKey sortKey : List.of(BookSortKey.TITLE, BookSortKey.AUTHOR, BookSortKey.PRICE)) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                List<BookResponse> paged = new ArrayList<>();
+                BookCursor cursor = null;
+                List<BookResponse> page;
+                do {
+                    page = index.page(null, null, sortKey, ascending,
+                            cursor != null ? cursor.lastKeyValue() : null, cursor != null ? cursor.lastId() : null, 2);
+                    paged.addAll(page);
+                    if (!page.isEmpty()) {
+                        cursor = BookCursor.decode(BookCursor.after(page.get(page.size() - 1), sortKey, ascending).encode());
+                    }
+                } while (page.size() == 2);
+
+                assertThat(ids(paged)).as("%s %s", sortKey, ascending ? "asc" : "desc")
+                        .containsExactlyElementsOf(ids(index.search(null, null, sortKey, ascending)));
+            }
+        }
+    }
+
+    @Test
+    void appliesCatalogChanges() {
+        index.onCatalogChanged(CatalogChangedEvent.upserted(
+                book("2", "The Hobbit", "J. R. R. Tolkien", "Classics", "7.50", 4.8)));
+        index.onCatalogChanged(CatalogChangedEvent.removed("1"));
+
+        assertThat(index.search(null, "Fantasy", BookSortKey.TITLE, true)).isEmpty();
+        assertThat(ids(index.search("classic", null, BookSortKey.TITLE, true))).containsExactly("2");
+        assertThat(index.search("harry", null, BookSortKey.TITLE, true)).isEmpty();
+    }
+
+    private static List<String> ids(List<BookResponse> books) {
+        return books.stream().map(BookResponse::getId).toList();
+    }
+
+    private static Book book(String id, String title, String author, String genre, String price, double rating) {
+        return new Book(id, title, author, LocalDate.of(2000, 1, 1), genre, "description", new BigDecimal(price),
+                "https://example.com/cover.jpg", rating, true, "System", LocalDateTime.now());
+    }
+
+    private static BookSummary summary(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationDate(),
+                book.getGenre(), book.getPrice(), book.getImage(), book.getRating(), book.isInStock(),
+                book.getAddedBy(), book.getCreatedAt());
+    }
+}
@@ -0,0 +1,132 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.config.GoogleBooksClientConfig;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.exception.ResourceNotFoundException;
+import com.book.BookHaven.repository.BookRepository;
+import com.book.BookHaven.support.GoogleBooksStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleBookServiceTest {
+
+    private GoogleBooksStubServer stub;
+    private CloseableHttpClient httpClient;
+    private BookRepository bookRepository;
+    private GoogleBookService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleBooksStubServer();
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GoogleBooksClientConfig config = new GoogleBooksClientConfig();
+        httpClient = config.googleBooksHttpClient(Duration.ofSeconds(1), Duration.ofSeconds(2),
+                Duration.ofSeconds(1), 10, Duration.ofSeconds(30));
+        GoogleBooksClient client = new GoogleBooksClient(
+                config.googleBooksRestTemplate(httpClient),
+                config.googleBooksCircuitBreaker(meterRegistry, 50, 20, Duration.ofSeconds(2), Duration.ofMinutes(1)),
+                config.googleBooksBulkhead(meterRegistry, 20, Duration.ofSeconds(1)),
+                config.googleBooksRetry(meterRegistry, 1, Duration.ofMillis(10)),
+                meterRegistry,
+                stub.apiUrl());
+        service = new GoogleBookService(bookRepository, mock(ApplicationEventPublisher.class), client,
+                new GoogleVolumeMapper(new ObjectMapper()), mock(PlatformTransactionManager.class), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+        httpClient.close(CloseMode.IMMEDIATE);
+    }
+
+    @Test
+    void concurrentFetchesOfTheSameVolumeShareOneRequestAndInsert() throws Exception {
+        stub.delayResponses(Duration.ofMillis(300));
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Book>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.fetchBookFromGoogle("popular");
+                }));
+            }
+            start.countDown();
+            for (Future<Book> result : results) {
+                assertThat(result.get().getTitle()).isEqualTo("Stub Title popular");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stub.requestCount()).isEqualTo(1);
+        verify(bookRepository, times(1)).save(any(Book.class));
+    }
+
+    @Test
+    void missingVolumesAreCachedBriefly() {
+        stub.respondWith(404);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.fetchBookFromGoogle("missing"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(stub.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersOnAFailedFetchSeeTheOriginalError() throws Exception {
+        stub.respondWith(503);
+        stub.delayResponses(Duration.ofMillis(300));
+        int callers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Book>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.fetchBookFromGoogle("flaky");
+                }));
+            }
+            start.countDown();
+            for (Future<Book> result : results) {
+                assertThatThrownBy(result::get)
+                        .hasRootCauseInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(stub.requestCount()).isEqualTo(1);
+    }
+}
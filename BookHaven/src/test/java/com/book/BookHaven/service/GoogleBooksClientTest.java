@@ -0,0 +1,118 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.config.GoogleBooksClientConfig;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.support.GoogleBooksStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleBooksClientTest {
+
+    private GoogleBooksStubServer stub;
+    private CloseableHttpClient httpClient;
+    private MeterRegistry meterRegistry;
+    private GoogleBooksClient client;
+    private final GoogleVolumeMapper mapper = new GoogleVolumeMapper(new ObjectMapper());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleBooksStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        GoogleBooksClientConfig config = new GoogleBooksClientConfig();
+        httpClient = config.googleBooksHttpClient(Duration.ofMillis(200), Duration.ofMillis(200),
+                Duration.ofMillis(200), 10, Duration.ofSeconds(30));
+        client = new GoogleBooksClient(
+                config.googleBooksRestTemplate(httpClient),
+                config.googleBooksCircuitBreaker(meterRegistry, 50, 4, Duration.ofSeconds(2), Duration.ofMinutes(1)),
+                config.googleBooksBulkhead(meterRegistry, 5, Duration.ofMillis(50)),
+                config.googleBooksRetry(meterRegistry, 2, Duration.ofMillis(10)),
+                meterRegistry,
+                stub.apiUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+        httpClient.close(CloseMode.IMMEDIATE);
+    }
+
+    @Test
+    void fetchesVolume() {
+        Book book = fetch("abc123");
+
+        assertThat(book.getId()).isEqualTo("abc123");
+        assertThat(book.getTitle()).isEqualTo("Stub Title abc123");
+        assertThat(meterRegistry.get("google.books.requests").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void slowResponseTimesOutInsteadOfHanging() {
+        stub.delayResponses(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> fetch("slow"))
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(stub.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsNotRetried() {
+        stub.respondWith(404);
+
+        assertThatThrownBy(() -> fetch("missing"))
+                .isInstanceOf(HttpClientErrorException.NotFound.class);
+        assertThat(stub.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unexpectedJsonIsNotRetriedOrCountedAsAnOutage() {
+        stub.respondWithBody("[\"not\", \"a\", \"volume\"]");
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> fetch("odd"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(stub.requestCount()).isEqualTo(3);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.calls").tag("kind", "failed")
+                .timer().count()).isZero();
+    }
+
+    @Test
+    void openCircuitStopsCallingGoogle() {
+        stub.respondWith(503);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> fetch("down"))
+                    .isInstanceOf(HttpServerErrorException.class);
+        }
+        int requestsWhenOpened = stub.requestCount();
+
+        assertThatThrownBy(() -> fetch("down"))
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(stub.requestCount()).isEqualTo(requestsWhenOpened);
+    }
+
+    /** Fetches and maps a volume the way GoogleBookService does. */
+    private Book fetch(String volumeId) {
+        return client.getVolume(volumeId, response -> mapper.readVolume(response.getBody(), volumeId, "test"), "test");
+    }
+}
@@ -0,0 +1,90 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleVolumeMapperTest {
+
+    private final GoogleVolumeMapper mapper = new GoogleVolumeMapper(new ObjectMapper());
+
+    @Test
+    void readsOnlyTheFieldsABookNeeds() throws IOException {
+        Book book = mapper.readVolume(stream("""
+                {"kind": "books#volume", "id": "other", "saleInfo": {"offers": [{"a": [1, {"b": 2}]}]},
+                 "volumeInfo": {"title": "Dune", "authors": ["Frank Herbert", "Someone Else"],
+                  "industryIdentifiers": [{"type": "ISBN_13", "identifier": "9780441013593"}],
+                  "categories": ["Fiction"], "description": "Spice", "publishedDate": "1965-08",
+                  "averageRating": 4, "imageLinks": {"smallThumbnail": "s.jpg", "thumbnail": "t.jpg"}},
+                 "accessInfo": {"epub": {"isAvailable": true}}}
+                """), "dune-id", "System");
+
+        assertThat(book.getId()).isEqualTo("dune-id");
+        assertThat(book.getTitle()).isEqualTo("Dune");
+        assertThat(book.getAuthor()).isEqualTo("Frank Herbert");
+        assertThat(book.getGenre()).isEqualTo("Fiction");
+        assertThat(book.getDescription()).isEqualTo("Spice");
+        assertThat(book.getImage()).isEqualTo("t.jpg");
+        assertThat(book.getRating()).isEqualTo(4.0);
+        assertThat(book.getPublicationDate()).isEqualTo(LocalDate.of(1965, 8, 1));
+        assertThat(book.getAddedBy()).isEqualTo("System");
+        assertThat(book.getPrice()).isBetween(java.math.BigDecimal.valueOf(100), java.math.BigDecimal.valueOf(1100));
+    }
+
+    @Test
+    void fallsBackToDefaultsForMissingOrOddlyTypedFields() throws IOException {
+        Book book = mapper.readVolume(stream("""
+                {"volumeInfo": {"authors": [], "categories": "not-an-array", "title": null,
+                  "imageLinks": {"small": "s.jpg"}, "averageRating": "high"}}
+                """), "sparse", "System");
+
+        assertThat(book.getTitle()).isEqualTo("Unknown Title");
+        assertThat(book.getAuthor()).isEqualTo("Unknown Author");
+        assertThat(book.getGenre()).isEqualTo("General");
+        assertThat(book.getDescription()).isEqualTo("No description available");
+        assertThat(book.getImage()).isEqualTo("https://via.placeholder.com/150");
+        assertThat(book.getRating()).isEqualTo(3.5);
+    }
+
+    @Test
+    void rejectsVolumesWithoutVolumeInfoOrMalformedJson() {
+        assertThatThrownBy(() -> mapper.readVolume(stream("{\"id\": \"x\"}"), "x", "System"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.readVolume(stream("{\"volumeInfo\": {\"title\": "), "x", "System"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.readVolume(stream("[]"), "x", "System"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.readSearchResults(stream("\"quota\""), "System", book -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamsSearchItems() throws IOException {
+        List<Book> books = new ArrayList<>();
+        int count = mapper.readSearchResults(stream("""
+                {"kind": "books#volumes", "totalItems": 3, "items": [
+                  {"id": "a", "volumeInfo": {"title": "A"}},
+                  {"volumeInfo": {"title": "no id"}},
+                  {"volumeInfo": {"title": "B"}, "id": "b"}
+                ]}
+                """), "System", books::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(books).extracting(Book::getId).containsExactly("a", "b");
+        assertThat(books).extracting(Book::getTitle).containsExactly("A", "B");
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.BookResponse;
+import com.book.BookHaven.dto.BookSummary;
+import com.book.BookHaven.entity.Book;
+import com.book.BookHaven.event.CatalogChangedEvent;
+import com.book.BookHaven.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HomepageSnapshotTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    // Stands in for the books table: the snapshot only reads it on (re)load
+    private final List<Book> table = new ArrayList<>();
+    private HomepageSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Book i is i minutes old and rated i / 10, so "0" is newest and "19" is best rated
+        IntStream.range(0, 20).forEach(i -> table.add(book(String.valueOf(i), i % 2 == 0 ? "Fantasy" : "Drama", i)));
+
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAllIdsAndGenres()).thenAnswer(invocation ->
+                table.stream().map(book -> new Object[]{book.getId(), book.getGenre()}).toList());
+        when(bookRepository.findSummaries(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            Sort.Order first = pageable.getSort().iterator().next();
+            Comparator<Book> order = "rating".equals(first.getProperty())
+                    ? Comparator.comparingDouble(Book::getRating).reversed()
+                    : Comparator.comparing(Book::getCreatedAt).reversed();
+            return table.stream().sorted(order.thenComparing(Book::getId)).limit(pageable.getPageSize())
+                    .map(HomepageSnapshotTest::summary).toList();
+        });
+        snapshot = new HomepageSnapshot(bookRepository, true);
+        snapshot.rebuild();
+    }
+
+    @Test
+    void loadsRankingsAndGenres() {
+        assertThat(ids(snapshot.featured())).containsExactly("0", "1", "2");
+        assertThat(ids(snapshot.topRated())).containsExactly("19", "18", "17");
+        assertThat(snapshot.genres()).containsExactly("Drama", "Fantasy");
+    }
+
+    @Test
+    void promotesAndDemotesOnUpdate() {
+        change(rated(book("5", "Fantasy", 5), 9.9));
+        assertThat(ids(snapshot.topRated())).containsExactly("5", "19", "18");
+
+        change(rated(book("19", "Drama", 19), 0.0));
+        assertThat(ids(snapshot.topRated())).containsExactly("5", "18", "17");
+    }
+
+    @Test
+    void reloadsRankingDrainedByDeletes() {
+        for (int i = 0; i < 12; i++) {
+            remove(String.valueOf(i));
+        }
+        assertThat(ids(snapshot.featured())).containsExactly("12", "13", "14");
+    }
+
+    @Test
+    void countsGenreReferences() {
+        change(book("new", "Poetry", -1));
+        assertThat(ids(snapshot.featured())).containsExactly("new", "0", "1");
+        assertThat(snapshot.genres()).containsExactly("Drama", "Fantasy", "Poetry");
+
+        change(book("new", "Drama", -1));
+        assertThat(snapshot.genres()).containsExactly("Drama", "Fantasy");
+
+        for (int i = 0; i < 20; i += 2) {
+            remove(String.valueOf(i));
+        }
+        assertThat(snapshot.genres()).containsExactly("Drama");
+    }
+
+    private void change(Book book) {
+        table.removeIf(existing -> existing.getId().equals(book.getId()));
+        table.add(book);
+        snapshot.onCatalogChanged(CatalogChangedEvent.upserted(book));
+    }
+
+    private void remove(String id) {
+        table.removeIf(existing -> existing.getId().equals(id));
+        snapshot.onCatalogChanged(CatalogChangedEvent.removed(id));
+    }
+
+    private static List<String> ids(List<BookResponse> books) {
+        return books.stream().map(BookResponse::getId).toList();
+    }
+
+    private static Book book(String id, String genre, int age) {
+        return new Book(id, "Title " + id, "Author", LocalDate.of(2000, 1, 1), genre, "description",
+                new BigDecimal("9.99"), "https://example.com/cover.jpg", age / 10.0, true, "System",
+                NOW.minusMinutes(age));
+    }
+
+    private static Book rated(Book book, double rating) {
+        book.setRating(rating);
+        return book;
+    }
+
+    private static BookSummary summary(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationDate(),
+                book.getGenre(), book.getPrice(), book.getImage(), book.getRating(), book.isInStock(),
+                book.getAddedBy(), book.getCreatedAt());
+    }
+}
@@ -0,0 +1,150 @@
+package com.book.BookHaven.service;
+
+import com.book.BookHaven.dto.CartItemRequest;
+import com.book.BookHaven.dto.OrderResponse;
+import com.book.BookHaven.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash sale against a real PostgreSQL: many buyers check out the same scarce book at once.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "catalog.index.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class OrderServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BUYERS = 48;
+    private static final int STOCK = 10;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String bookId;
+
+    @BeforeEach
+    void setUp() {
+        bookId = "flash-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO books (id, title, author, publication_date, genre, description, price, " +
+                "image, rating, in_stock, stock, added_by, created_at) VALUES (?, 'Title', 'Author', " +
+                "DATE '2001-01-01', 'Genre', 'Description', 10.00, 'img', 4.0, true, ?, 'System', ?)",
+                bookId, STOCK, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Test
+    void flashSaleSellsExactlyTheStock() throws Exception {
+        List<String> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(buyerWithBookInCart(1));
+        }
+
+        List<Callable<OrderResponse>> checkouts = buyers.stream()
+                .<Callable<OrderResponse>>map(email -> () -> orderService.checkout(email, null)).toList();
+        int sold = 0;
+        for (Future<OrderResponse> result : runConcurrently(checkouts)) {
+            try {
+                result.get();
+                sold++;
+            } catch (ExecutionException e) {
+                // Anything but a clean "out of stock" (deadlock, lost update, ...) fails the test
+                assertThat(e.getCause()).isInstanceOf(ValidationException.class);
+            }
+        }
+
+        assertThat(sold).isEqualTo(STOCK);
+        assertThat(jdbcTemplate.queryForMap("SELECT stock, in_stock FROM books WHERE id = ?", bookId))
+                .containsEntry("stock", 0).containsEntry("in_stock", false);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(quantity) FROM order_lines WHERE book_id = ?", Integer.class, bookId)).isEqualTo(STOCK);
+        // Buyers who missed out keep their cart
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart WHERE book_id = ?", Integer.class, bookId)).isEqualTo(BUYERS - STOCK);
+    }
+
+    @Test
+    void retriesWithTheSameKeyPlaceOneOrder() throws Exception {
+        String email = buyerWithBookInCart(2);
+        String key = UUID.randomUUID().toString();
+
+        List<Callable<OrderResponse>> retries = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            retries.add(() -> orderService.checkout(email, key));
+        }
+        List<String> orderIds = new ArrayList<>();
+        for (Future<OrderResponse> result : runConcurrently(retries)) {
+            orderIds.add(result.get().getOrderId());
+        }
+
+        assertThat(orderIds).hasSize(THREADS).containsOnly(orderIds.get(0));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock FROM books WHERE id = ?", Integer.class, bookId)).isEqualTo(STOCK - 2);
+    }
+
+    private String buyerWithBookInCart(int quantity) {
+        String userId = UUID.randomUUID().toString();
+        String email = userId + "@example.com";
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, role, token_version) " +
+                "VALUES (?, ?, ?, 'x', ?, 'USER', 0)", userId, userId, email, Timestamp.valueOf(LocalDateTime.now()));
+        CartItemRequest request = new CartItemRequest();
+        request.setBookId(bookId);
+        request.setQuantity(quantity);
+        cartService.addToCart(request, email);
+        return email;
+    }
+
+    private static <T> List<Future<T>> runConcurrently(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        return futures;
+    }
+}
@@ -0,0 +1,112 @@
+package com.book.BookHaven.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Google Books volumes API. Serves a canned volume for any id and a
+ * fixed set of search hits, with a configurable status, body and delay, and counts the requests it
+ * receives.
+ */
+public class GoogleBooksStubServer implements AutoCloseable {
+
+    public static final int SEARCH_RESULTS = 95;
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile Duration delay = Duration.ZERO;
+    private volatile String body;
+
+    public GoogleBooksStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books/v1/volumes", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String apiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books/v1/volumes/";
+    }
+
+    public void respondWith(int status) {
+        this.status = status;
+    }
+
+    /** Serves {@code body} for every request instead of the canned volumes. */
+    public void respondWithBody(String body) {
+        this.body = body;
+    }
+
+    public void delayResponses(Duration delay) {
+        this.delay = delay;
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public static String volumeJson(String id) {
+        return """
+                {"id": "%s", "volumeInfo": {"title": "Stub Title %s", "authors": ["Stub Author"],
+                 "categories": ["Fiction"], "description": "A stubbed volume", "publishedDate": "2001-05",
+                 "averageRating": 4.5, "imageLinks": {"thumbnail": "https://example.com/%s.jpg"}}}
+                """.formatted(id, id, id);
+    }
+
+    /** A search has {@link #SEARCH_RESULTS} hits with ids "hit-0", "hit-1", ... */
+    private static String searchJson(String query) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : query.split("&")) {
+            int eq = param.indexOf('=');
+            params.put(param.substring(0, eq), param.substring(eq + 1));
+        }
+        int startIndex = Integer.parseInt(params.get("startIndex"));
+        int maxResults = Integer.parseInt(params.get("maxResults"));
+        StringJoiner items = new StringJoiner(",", "[", "]");
+        for (int i = startIndex; i < Math.min(SEARCH_RESULTS, startIndex + maxResults); i++) {
+            items.add(volumeJson("hit-" + i));
+        }
+        return "{\"kind\": \"books#volumes\", \"totalItems\": " + SEARCH_RESULTS + ", \"items\": " + items + "}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+            String path = exchange.getRequestURI().getPath();
+            String json = body != null ? body
+                    : status != 200 ? "{\"error\": {\"code\": " + status + "}}"
+                    : path.startsWith("/books/v1/volumes/") ? volumeJson(path.substring("/books/v1/volumes/".length()))
+                    : searchJson(exchange.getRequestURI().getQuery());
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // Client gave up (timeout); nothing left to answer
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}